@@ -0,0 +1,37 @@
+package com.klb.account_service.configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // compacted to the latest record per jti; records older than the refresh window are for tokens no
+    // instance accepts any more, so they are deleted as well
+    @Bean
+    public NewTopic tokenRevocationTopic(
+            @Value("${token-revocation.topic:token-revocation}") String topic,
+            @Value("${jwt.refreshable-duration}") long refreshableDuration,
+            @Value("${token-revocation.partitions:3}") int partitions) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .config(
+                        TopicConfig.CLEANUP_POLICY_CONFIG,
+                        TopicConfig.CLEANUP_POLICY_COMPACT + "," + TopicConfig.CLEANUP_POLICY_DELETE)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(TimeUnit.SECONDS.toMillis(refreshableDuration)))
+                .build();
+    }
+
+    // every instance assigns itself all of these partitions, without a consumer group
+    @Bean
+    public String[] tokenRevocationPartitions(@Value("${token-revocation.partitions:3}") int partitions) {
+        return IntStream.range(0, partitions).mapToObj(String::valueOf).toArray(String[]::new);
+    }
+}
@@ -1,6 +1,7 @@
 package com.klb.account_service.controller;
 
 import java.text.ParseException;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -25,9 +26,12 @@ public class AuthenticationController {
     AuthenticationService authenticationService;
 
     @PostMapping("/token")
-    ApiResponse<AuthenticationResponse> authenticate(@RequestBody AuthenticationRequest request) {
-        var result = authenticationService.authenticate(request);
-        return ApiResponse.<AuthenticationResponse>builder().result(result).build();
+    CompletableFuture<ApiResponse<AuthenticationResponse>> authenticate(@RequestBody AuthenticationRequest request) {
+        return authenticationService
+                .authenticate(request)
+                .thenApply(result -> ApiResponse.<AuthenticationResponse>builder()
+                        .result(result)
+                        .build());
     }
 
     @PostMapping("/introspect")
@@ -18,7 +18,8 @@ public enum ErrorCode {
     INVALID_DOB(1008, "Your age must be at least {min}", HttpStatus.BAD_REQUEST),
     INVALID_EMAIL(1009, "Invalid email address", HttpStatus.BAD_REQUEST),
     EMAIL_IS_REQUIRED(1009, "Email is required", HttpStatus.BAD_REQUEST),
-    Error_CREATING_KEYCLOAK_USER(1010, "Error creating user in keycloak", HttpStatus.BAD_REQUEST);
+    Error_CREATING_KEYCLOAK_USER(1010, "Error creating user in keycloak", HttpStatus.BAD_REQUEST),
+    SERVICE_BUSY(1011, "Service is busy, please try again later", HttpStatus.SERVICE_UNAVAILABLE);
 
     ErrorCode(int code, String message, HttpStatusCode statusCode) {
         this.code = code;
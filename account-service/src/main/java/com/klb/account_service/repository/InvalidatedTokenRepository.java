@@ -1,9 +1,23 @@
 package com.klb.account_service.repository;
 
+import java.util.Date;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.klb.account_service.entity.InvalidatedToken;
 
 @Repository
-public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {}
+public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {
+    List<InvalidatedToken> findByExpiryTimeAfter(Date time);
+
+    // one bounded batch per transaction, so a large purge does not hold long locks
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM invalidated_token WHERE expiry_time < :time LIMIT :limit", nativeQuery = true)
+    int deleteExpired(Date time, int limit);
+}
@@ -6,10 +6,9 @@ import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.StringJoiner;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
@@ -19,17 +18,12 @@ import com.klb.account_service.dto.request.LogoutRequest;
 import com.klb.account_service.dto.request.RefreshRequest;
 import com.klb.account_service.dto.response.AuthenticationResponse;
 import com.klb.account_service.dto.response.IntrospectResponse;
-import com.klb.account_service.entity.InvalidatedToken;
 import com.klb.account_service.entity.User;
 import com.klb.account_service.exception.AppException;
 import com.klb.account_service.exception.ErrorCode;
-import com.klb.account_service.repository.InvalidatedTokenRepository;
 import com.klb.account_service.repository.UserRepository;
-import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -43,11 +37,9 @@ import lombok.extern.slf4j.Slf4j;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class AuthenticationService {
     UserRepository userRepository;
-    InvalidatedTokenRepository invalidatedTokenRepository;
-
-    @NonFinal
-    @Value("${jwt.signerKey}")
-    protected String SIGNER_KEY;
+    TokenRevocationService tokenRevocationService;
+    PasswordHashingService passwordHashingService;
+    TokenCodec tokenCodec;
 
     @NonFinal
     @Value("${jwt.valid-duration}")
@@ -70,49 +62,39 @@ public class AuthenticationService {
         return IntrospectResponse.builder().valid(isValid).build();
     }
 
-    public AuthenticationResponse authenticate(AuthenticationRequest request) {
-        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
+    public CompletableFuture<AuthenticationResponse> authenticate(AuthenticationRequest request) {
         var user = userRepository
                 .findByUsername(request.getUsername())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
 
-        boolean authenticated = passwordEncoder.matches(request.getPassword(), user.getPassword());
+        // the hash runs on the hashing pool, the request thread goes back to Tomcat until it completes
+        return passwordHashingService
+                .matches(request.getPassword(), user.getPassword())
+                .thenApply(authenticated -> {
+                    if (!authenticated) throw new AppException(ErrorCode.UNAUTHENTICATED);
 
-        if (!authenticated) throw new AppException(ErrorCode.UNAUTHENTICATED);
-
-        var token = generateToken(user);
+                    var token = generateToken(user);
 
-        return AuthenticationResponse.builder().token(token).build();
+                    return AuthenticationResponse.builder().token(token).build();
+                });
     }
 
     public void logout(LogoutRequest request) throws ParseException, JOSEException {
         try {
-            var signToken = verifyToken(request.getToken(), true);
-
-            String jit = signToken.getJWTClaimsSet().getJWTID();
-            Date expiryTime = signToken.getJWTClaimsSet().getExpirationTime();
+            var claims = verifyToken(request.getToken(), true);
 
-            InvalidatedToken invalidatedToken =
-                    InvalidatedToken.builder().id(jit).expiryTime(expiryTime).build();
-
-            invalidatedTokenRepository.save(invalidatedToken);
+            tokenRevocationService.revoke(claims.getJWTID(), revokedUntil(claims));
         } catch (AppException exception) {
             log.info("Token already expired");
         }
     }
 
     public AuthenticationResponse refreshToken(RefreshRequest request) throws ParseException, JOSEException {
-        var signedJWT = verifyToken(request.getToken(), true);
-
-        var jit = signedJWT.getJWTClaimsSet().getJWTID();
-        var expiryTime = signedJWT.getJWTClaimsSet().getExpirationTime();
+        var claims = verifyToken(request.getToken(), true);
 
-        InvalidatedToken invalidatedToken =
-                InvalidatedToken.builder().id(jit).expiryTime(expiryTime).build();
+        tokenRevocationService.revoke(claims.getJWTID(), revokedUntil(claims));
 
-        invalidatedTokenRepository.save(invalidatedToken);
-
-        var username = signedJWT.getJWTClaimsSet().getSubject();
+        var username = claims.getSubject();
 
         var user =
                 userRepository.findByUsername(username).orElseThrow(() -> new AppException(ErrorCode.UNAUTHENTICATED));
@@ -123,8 +105,6 @@ public class AuthenticationService {
     }
 
     private String generateToken(User user) {
-        JWSHeader header = new JWSHeader(JWSAlgorithm.HS512);
-
         JWTClaimsSet jwtClaimsSet = new JWTClaimsSet.Builder()
                 .subject(user.getId())
                 .issuer("devteria.com")
@@ -135,41 +115,32 @@ public class AuthenticationService {
                 .claim("scope", buildScope(user))
                 .build();
 
-        Payload payload = new Payload(jwtClaimsSet.toJSONObject());
-
-        JWSObject jwsObject = new JWSObject(header, payload);
-
-        try {
-            jwsObject.sign(new MACSigner(SIGNER_KEY.getBytes()));
-            return jwsObject.serialize();
-        } catch (JOSEException e) {
-            log.error("Cannot create token", e);
-            throw new RuntimeException(e);
-        }
+        return tokenCodec.sign(jwtClaimsSet);
     }
 
-    private SignedJWT verifyToken(String token, boolean isRefresh) throws JOSEException, ParseException {
-        JWSVerifier verifier = new MACVerifier(SIGNER_KEY.getBytes());
+    private JWTClaimsSet verifyToken(String token, boolean isRefresh) throws JOSEException, ParseException {
+        JWTClaimsSet claims = tokenCodec.verify(token);
 
-        SignedJWT signedJWT = SignedJWT.parse(token);
+        Date expiryTime = (isRefresh) ? refreshableUntil(claims) : claims.getExpirationTime();
 
-        Date expiryTime = (isRefresh)
-                ? new Date(signedJWT
-                        .getJWTClaimsSet()
-                        .getIssueTime()
-                        .toInstant()
-                        .plus(REFRESHABLE_DURATION, ChronoUnit.SECONDS)
-                        .toEpochMilli())
-                : signedJWT.getJWTClaimsSet().getExpirationTime();
+        if (!expiryTime.after(new Date())) throw new AppException(ErrorCode.UNAUTHENTICATED);
 
-        var verified = signedJWT.verify(verifier);
+        if (tokenRevocationService.isRevoked(claims.getJWTID())) throw new AppException(ErrorCode.UNAUTHENTICATED);
 
-        if (!(verified && expiryTime.after(new Date()))) throw new AppException(ErrorCode.UNAUTHENTICATED);
+        return claims;
+    }
 
-        if (invalidatedTokenRepository.existsById(signedJWT.getJWTClaimsSet().getJWTID()))
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
+    private Date refreshableUntil(JWTClaimsSet claims) {
+        return new Date(claims.getIssueTime()
+                .toInstant()
+                .plus(REFRESHABLE_DURATION, ChronoUnit.SECONDS)
+                .toEpochMilli());
+    }
 
-        return signedJWT;
+    // a revoked token must stay revoked for as long as any endpoint would still accept it
+    private Date revokedUntil(JWTClaimsSet claims) {
+        Date refreshableUntil = refreshableUntil(claims);
+        return refreshableUntil.after(claims.getExpirationTime()) ? refreshableUntil : claims.getExpirationTime();
     }
 
     private String buildScope(User user) {
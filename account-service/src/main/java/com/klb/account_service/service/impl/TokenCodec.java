@@ -0,0 +1,115 @@
+package com.klb.account_service.service.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.klb.account_service.exception.AppException;
+import com.klb.account_service.exception.ErrorCode;
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Signs and verifies HS512 tokens with a signer and verifier built once from {@code jwt.signerKey}; both are
+ * immutable and safe to share between threads. Verified tokens are kept in a bounded cache keyed by the SHA-256
+ * of the token until their {@code exp}, so verifying the same token again costs a hash and a lookup instead of
+ * a parse and a MAC. The cache only vouches for the signature: expiry and revocation stay with the caller.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TokenCodec {
+    static final JWSHeader HEADER = new JWSHeader(JWSAlgorithm.HS512);
+
+    static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    JWSSigner signer;
+    JWSVerifier verifier;
+    Cache<ByteBuffer, JWTClaimsSet> verified;
+
+    public TokenCodec(
+            @Value("${jwt.signerKey}") String signerKey,
+            @Value("${jwt.verified-cache-size:10000}") long verifiedCacheSize)
+            throws JOSEException {
+        this.signer = new MACSigner(signerKey.getBytes());
+        this.verifier = new MACVerifier(signerKey.getBytes());
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new UntilExpiration())
+                .build();
+    }
+
+    public String sign(JWTClaimsSet claims) {
+        JWSObject jwsObject = new JWSObject(HEADER, new Payload(claims.toJSONObject()));
+
+        try {
+            jwsObject.sign(signer);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot sign token", e);
+        }
+
+        return jwsObject.serialize();
+    }
+
+    /**
+     * Parses the token and checks its signature, once per token while it is cached.
+     *
+     * @return the claims, parsed once
+     * @throws AppException with {@link ErrorCode#UNAUTHENTICATED} if the signature does not match
+     */
+    public JWTClaimsSet verify(String token) throws ParseException, JOSEException {
+        ByteBuffer key = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+
+        JWTClaimsSet claims = verified.getIfPresent(key);
+        if (claims != null) return claims;
+
+        SignedJWT signedJWT = SignedJWT.parse(token);
+        if (!signedJWT.verify(verifier)) throw new AppException(ErrorCode.UNAUTHENTICATED);
+
+        claims = signedJWT.getJWTClaimsSet();
+        Date expirationTime = claims.getExpirationTime();
+        if (expirationTime != null && expirationTime.after(new Date())) verified.put(key, claims);
+
+        return claims;
+    }
+
+    static class UntilExpiration implements Expiry<ByteBuffer, JWTClaimsSet> {
+        @Override
+        public long expireAfterCreate(ByteBuffer key, JWTClaimsSet claims, long currentTime) {
+            return Math.max(
+                    0,
+                    TimeUnit.MILLISECONDS.toNanos(claims.getExpirationTime().getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, JWTClaimsSet claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, JWTClaimsSet claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
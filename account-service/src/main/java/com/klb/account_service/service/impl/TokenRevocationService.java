@@ -0,0 +1,233 @@
+package com.klb.account_service.service.impl;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.klb.account_service.entity.InvalidatedToken;
+import com.klb.account_service.repository.InvalidatedTokenRepository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revoked token ids held in memory, so checking a token is a map lookup instead of a query. The table stays
+ * the source of truth and is loaded at startup; revocations on other instances arrive through the
+ * {@code token-revocation} topic. Every instance assigns itself all of its partitions and reads them from the
+ * beginning without a consumer group, so restarts leave no groups or committed offsets behind on the broker.
+ * Until the listener has read everything published before it started, an id missing from the map is looked up
+ * in the table, so a revocation made elsewhere during that window is not missed. Catching up is decided on the
+ * consumer thread, at each idle event: the end offsets of the assigned partitions are read once, and the listener
+ * has caught up when its position on every one of them has reached its end offset. An idle event while the broker
+ * is unreachable or before partitions are assigned leaves the table check on. A publish that fails is logged
+ * and retried by {@link #republishFailed()} until the broker acknowledges it.
+ * <p>
+ * Each id is dropped once the token can no longer be used, by a hashed timing wheel: one slot per tick, an
+ * entry sits in the slot of its expiry tick and is removed when the wheel passes that slot in the right round.
+ * Expired rows are deleted from the table in batches by {@link #purgeExpired()}.
+ */
+@Service
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TokenRevocationService implements InitializingBean {
+    static final int WHEEL_SLOTS = 4096;
+    // bounds the consumer thread's wait on the broker while checking whether it has caught up
+    static final Duration OFFSETS_TIMEOUT = Duration.ofSeconds(5);
+
+    InvalidatedTokenRepository invalidatedTokenRepository;
+    KafkaTemplate<String, Object> kafkaTemplate;
+    String topic;
+    long tickMillis;
+    int purgeBatchSize;
+
+    Map<String, Long> revoked = new ConcurrentHashMap<>();
+    Queue<Revocation> unpublished = new ConcurrentLinkedQueue<>();
+    Queue<Revocation>[] wheel;
+
+    // only advanced by the scheduler thread
+    @NonFinal
+    long nextTick;
+
+    // end offsets of the assigned partitions when first read; only touched on the listener's consumer thread
+    @NonFinal
+    Map<org.apache.kafka.common.TopicPartition, Long> catchUpOffsets;
+
+    // set once the listener's position has reached catchUpOffsets on every partition
+    @NonFinal
+    volatile boolean caughtUp;
+
+    @SuppressWarnings("unchecked")
+    public TokenRevocationService(
+            InvalidatedTokenRepository invalidatedTokenRepository,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${token-revocation.topic:token-revocation}") String topic,
+            @Value("${token-revocation.tick:PT1S}") Duration tick,
+            @Value("${token-revocation.purge-batch-size:1000}") int purgeBatchSize) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.tickMillis = tick.toMillis();
+        this.purgeBatchSize = purgeBatchSize;
+        this.wheel = new Queue[WHEEL_SLOTS];
+        for (int i = 0; i < WHEEL_SLOTS; i++) wheel[i] = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long now = System.currentTimeMillis();
+        nextTick = now / tickMillis;
+
+        var active = invalidatedTokenRepository.findByExpiryTimeAfter(new Date(now));
+        active.forEach(token -> track(token.getId(), token.getExpiryTime().getTime()));
+
+        log.info("Loaded {} revoked tokens", active.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (revoked.containsKey(jti)) return true;
+        return !caughtUp && invalidatedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * @param until the last moment the token is accepted anywhere, including for a refresh
+     */
+    public void revoke(String jti, Date until) {
+        invalidatedTokenRepository.save(
+                InvalidatedToken.builder().id(jti).expiryTime(until).build());
+        track(jti, until.getTime());
+        publish(new Revocation(jti, until.getTime()));
+    }
+
+    /**
+     * Publishes again the revocations whose send failed; the ones that have expired meanwhile are dropped.
+     */
+    @Scheduled(fixedDelayString = "${token-revocation.republish-interval:PT5S}")
+    public void republishFailed() {
+        long now = System.currentTimeMillis();
+        for (int pending = unpublished.size(); pending > 0; pending--) {
+            Revocation revocation = unpublished.poll();
+            if (revocation == null) break;
+            if (revocation.until() >= now) publish(revocation);
+        }
+    }
+
+    @KafkaListener(
+            id = "token-revocation",
+            idIsGroup = false,
+            topicPartitions =
+                    @TopicPartition(
+                            topic = "${token-revocation.topic:token-revocation}",
+                            partitions = "#{@tokenRevocationPartitions}",
+                            partitionOffsets = @PartitionOffset(partition = "*", initialOffset = "0")),
+            // offset 0 may already be compacted away
+            properties = {"auto.offset.reset=earliest"})
+    void onRevocation(ConsumerRecord<String, String> record) {
+        if (record.value() != null) track(record.key(), Long.parseLong(record.value()));
+    }
+
+    @EventListener(condition = "event.listenerId.startsWith('token-revocation')")
+    void onListenerIdle(ListenerContainerIdleEvent event) {
+        if (caughtUp) return;
+
+        var partitions = event.getTopicPartitions();
+        Consumer<?, ?> consumer = event.getConsumer();
+        if (partitions == null || partitions.isEmpty() || consumer == null) return;
+        try {
+            if (catchUpOffsets == null) catchUpOffsets = Map.copyOf(consumer.endOffsets(partitions, OFFSETS_TIMEOUT));
+            for (var partition : partitions) {
+                Long end = catchUpOffsets.get(partition);
+                if (end == null || consumer.position(partition, OFFSETS_TIMEOUT) < end) return;
+            }
+        } catch (KafkaException e) {
+            log.debug("Revocation topic offsets unavailable, still checking the table: {}", e.getMessage());
+            return;
+        }
+
+        log.info("Caught up with the revocation topic");
+        caughtUp = true;
+    }
+
+    /**
+     * Moves the wheel up to the current tick, dropping the ids whose tokens have expired.
+     */
+    @Scheduled(fixedRateString = "${token-revocation.tick:PT1S}")
+    public void advance() {
+        long now = System.currentTimeMillis();
+        long currentTick = now / tickMillis;
+
+        // every entry in the slot of tick t expires before the end of t, so only finished ticks are swept
+        long from = Math.max(nextTick, currentTick - WHEEL_SLOTS);
+        for (long tick = from; tick < currentTick; tick++) {
+            Iterator<Revocation> slot = wheel[slot(tick)].iterator();
+            while (slot.hasNext()) {
+                Revocation revocation = slot.next();
+                if (revocation.until() < now) {
+                    slot.remove();
+                    revoked.remove(revocation.jti(), revocation.until());
+                }
+            }
+        }
+        nextTick = Math.max(nextTick, currentTick);
+    }
+
+    @Scheduled(fixedDelayString = "${token-revocation.purge-interval:PT10M}")
+    public void purgeExpired() {
+        Date now = new Date();
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = invalidatedTokenRepository.deleteExpired(now, purgeBatchSize);
+            purged += deleted;
+        } while (deleted == purgeBatchSize);
+
+        if (purged > 0) log.info("Purged {} expired invalidated tokens", purged);
+    }
+
+    private void track(String jti, long until) {
+        if (until < System.currentTimeMillis()) return;
+
+        Long merged = revoked.merge(jti, until, Math::max);
+        if (merged == until) wheel[slot(until / tickMillis)].add(new Revocation(jti, until));
+    }
+
+    private void publish(Revocation revocation) {
+        try {
+            kafkaTemplate.send(topic, revocation.jti(), revocation.until()).whenComplete((result, e) -> {
+                if (e != null) failed(revocation, e);
+            });
+        } catch (RuntimeException e) {
+            failed(revocation, e);
+        }
+    }
+
+    private void failed(Revocation revocation, Throwable e) {
+        log.warn("Publishing revocation of {} failed, will retry: {}", revocation.jti(), e.getMessage());
+        unpublished.add(revocation);
+    }
+
+    private static int slot(long tick) {
+        return (int) (tick % WHEEL_SLOTS);
+    }
+
+    record Revocation(String jti, long until) {}
+}
@@ -0,0 +1,128 @@
+package com.klb.account_service.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.klb.account_service.entity.Permission;
+import com.klb.account_service.entity.Role;
+import com.klb.account_service.entity.User;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(
+        properties = {
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+        })
+class UserRepositoryTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    @Autowired
+    PermissionRepository permissionRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate transaction;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // H2 rejects the MySQL collation in the generated DDL, so the user table is created by hand
+        jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS \"user\" (id VARCHAR(255) PRIMARY KEY, username VARCHAR(255) UNIQUE, "
+                        + "password VARCHAR(255), email VARCHAR(255) UNIQUE, email_verified BOOLEAN DEFAULT FALSE NOT NULL)");
+
+        // committed, so the cache regions are not locked by pending inserts
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            Permission read =
+                    permissionRepository.save(Permission.builder().name("READ").build());
+            Permission write =
+                    permissionRepository.save(Permission.builder().name("WRITE").build());
+            Role user = roleRepository.save(
+                    Role.builder().name("USER").permissions(Set.of(read)).build());
+            Role admin = roleRepository.save(Role.builder()
+                    .name("ADMIN")
+                    .permissions(Set.of(read, write))
+                    .build());
+            userRepository.save(User.builder()
+                    .username("alice")
+                    .email("alice@example.com")
+                    .roles(Set.of(user, admin))
+                    .build());
+        });
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void findByUsernameLoadsRolesAndPermissionsInOneQuery() {
+        Set<String> scope =
+                transaction.execute(status -> userRepository.findByUsername("alice").orElseThrow().getRoles().stream()
+                        .flatMap(role -> role.getPermissions().stream())
+                        .map(Permission::getName)
+                        .collect(Collectors.toSet()));
+
+        assertEquals(Set.of("READ", "WRITE"), scope);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllRolesIsServedFromTheCacheAfterTheFirstCall() {
+        assertEquals(2, loadRoles());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(2, loadRoles());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    private int loadRoles() {
+        return transaction.execute(status -> {
+            var roles = roleRepository.findAll();
+            roles.forEach(role -> role.getPermissions().size());
+            return roles.size();
+        });
+    }
+}
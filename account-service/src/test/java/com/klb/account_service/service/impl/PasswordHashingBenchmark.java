@@ -0,0 +1,55 @@
+package com.klb.account_service.service.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Logins per second for each BCrypt cost factor. {@code matchesPerCore} runs one thread, so its score is the
+ * logins one core can verify; {@code matchesThroughPool} sends logins from more threads than cores through
+ * {@link PasswordHashingService} and should level off at roughly cores times that score.
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *   -Dexec.args="-cp %classpath org.openjdk.jmh.Main PasswordHashingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"8", "10", "12"})
+    int strength;
+
+    PasswordEncoder passwordEncoder;
+    PasswordHashingService passwordHashingService;
+    String encoded;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder(strength);
+        encoded = passwordEncoder.encode("123456");
+        // queue large enough that the benchmark threads are never rejected
+        passwordHashingService = new PasswordHashingService(passwordEncoder, 0, 1024);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHashingService.destroy();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean matchesPerCore() {
+        return passwordEncoder.matches("123456", encoded);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean matchesThroughPool() {
+        return passwordHashingService.matches("123456", encoded).join();
+    }
+}
@@ -0,0 +1,51 @@
+package com.klb.account_service.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.klb.account_service.exception.AppException;
+import com.klb.account_service.exception.ErrorCode;
+
+class PasswordHashingServiceTest {
+
+    @Test
+    void matchesOnThePool() {
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        String encoded = passwordEncoder.encode("123456");
+        PasswordHashingService service = new PasswordHashingService(passwordEncoder, 2, 4);
+
+        assertTrue(service.matches("123456", encoded).join());
+        assertFalse(service.matches("654321", encoded).join());
+        service.destroy();
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.matches(any(), any())).thenAnswer(invocation -> {
+            release.await();
+            return true;
+        });
+        PasswordHashingService service = new PasswordHashingService(passwordEncoder, 1, 1);
+
+        CompletableFuture<Boolean> running = service.matches("a", "hash");
+        CompletableFuture<Boolean> queued = service.matches("b", "hash");
+        AppException rejected = assertThrows(AppException.class, () -> service.matches("c", "hash"));
+        assertEquals(ErrorCode.SERVICE_BUSY, rejected.getErrorCode());
+
+        release.countDown();
+        assertTrue(running.join());
+        assertTrue(queued.join());
+        service.destroy();
+    }
+}
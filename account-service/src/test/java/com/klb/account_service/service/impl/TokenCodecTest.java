@@ -0,0 +1,64 @@
+package com.klb.account_service.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import com.klb.account_service.exception.AppException;
+import com.klb.account_service.exception.ErrorCode;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+class TokenCodecTest {
+
+    private static final String SIGNER_KEY = "1TjXchw5FloESb63Kc+DFhTARvpWL4jUGCwfGWxuG5SIf/1y/LgJxHnMqaF6A/ij";
+
+    TokenCodec tokenCodec = newCodec();
+
+    @Test
+    void verifiedClaimsAreParsedOnceAndServedFromTheCache() throws Exception {
+        String token = tokenCodec.sign(claims(Instant.now().plus(1, ChronoUnit.HOURS)));
+
+        JWTClaimsSet first = tokenCodec.verify(token);
+        JWTClaimsSet second = tokenCodec.verify(token);
+
+        assertEquals("user-1", first.getSubject());
+        assertSame(first, second);
+    }
+
+    @Test
+    void expiredTokensAreNotCached() throws Exception {
+        String token = tokenCodec.sign(claims(Instant.now().minus(1, ChronoUnit.MINUTES)));
+
+        assertNotSame(tokenCodec.verify(token), tokenCodec.verify(token));
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() throws Exception {
+        TokenCodec otherKey = new TokenCodec(SIGNER_KEY.replace('1', '2'), 10);
+        String token = otherKey.sign(claims(Instant.now().plus(1, ChronoUnit.HOURS)));
+
+        AppException exception = assertThrows(AppException.class, () -> tokenCodec.verify(token));
+        assertEquals(ErrorCode.UNAUTHENTICATED, exception.getErrorCode());
+    }
+
+    private static TokenCodec newCodec() {
+        try {
+            return new TokenCodec(SIGNER_KEY, 10);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static JWTClaimsSet claims(Instant expiry) {
+        return new JWTClaimsSet.Builder()
+                .subject("user-1")
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiry))
+                .jwtID("jti-1")
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.klb.account_service.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+
+import com.klb.account_service.entity.InvalidatedToken;
+import com.klb.account_service.repository.InvalidatedTokenRepository;
+
+class TokenRevocationServiceTest {
+
+    InvalidatedTokenRepository invalidatedTokenRepository = mock(InvalidatedTokenRepository.class);
+
+    @SuppressWarnings("unchecked")
+    KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+
+    TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        when(invalidatedTokenRepository.findByExpiryTimeAfter(any()))
+                .thenReturn(List.of(InvalidatedToken.builder()
+                        .id("loaded")
+                        .expiryTime(inMillis(60_000))
+                        .build()));
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        service = new TokenRevocationService(
+                invalidatedTokenRepository, kafkaTemplate, "token-revocation", Duration.ofMillis(10), 2);
+        service.afterPropertiesSet();
+    }
+
+    @Test
+    void revokedTokensAreLoadedSavedAndPublished() {
+        Date until = inMillis(60_000);
+        service.revoke("revoked", until);
+
+        assertTrue(service.isRevoked("loaded"));
+        assertTrue(service.isRevoked("revoked"));
+        assertFalse(service.isRevoked("other"));
+        verify(invalidatedTokenRepository).save(any(InvalidatedToken.class));
+        verify(kafkaTemplate).send("token-revocation", "revoked", until.getTime());
+    }
+
+    @Test
+    void revocationsFromOtherInstancesAreTracked() {
+        service.onRevocation(new ConsumerRecord<>(
+                "token-revocation",
+                0,
+                0,
+                "remote",
+                String.valueOf(inMillis(60_000).getTime())));
+
+        assertTrue(service.isRevoked("remote"));
+    }
+
+    @Test
+    void failedPublishesAreRetriedUntilAcknowledged() {
+        Date until = inMillis(60_000);
+        when(kafkaTemplate.send("token-revocation", "revoked", until.getTime()))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker unavailable")))
+                .thenThrow(new KafkaException("metadata timeout"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        service.revoke("revoked", until);
+        service.republishFailed();
+        service.republishFailed();
+        service.republishFailed();
+
+        verify(kafkaTemplate, times(3)).send("token-revocation", "revoked", until.getTime());
+        assertTrue(service.isRevoked("revoked"));
+    }
+
+    @Test
+    void missesReadTheTableUntilTheListenerHasReachedTheEndOffsets() {
+        when(invalidatedTokenRepository.existsById("elsewhere")).thenReturn(true);
+        TopicPartition first = new TopicPartition("token-revocation", 0);
+        TopicPartition second = new TopicPartition("token-revocation", 1);
+        @SuppressWarnings("unchecked")
+        Consumer<String, String> consumer = mock(Consumer.class);
+        when(consumer.endOffsets(eq(List.of(first, second)), any(Duration.class)))
+                .thenReturn(Map.of(first, 10L, second, 5L));
+        when(consumer.position(eq(first), any(Duration.class))).thenReturn(10L);
+        when(consumer.position(eq(second), any(Duration.class))).thenReturn(3L, 5L);
+
+        service.onListenerIdle(idle(List.of(first, second), consumer));
+        assertTrue(service.isRevoked("elsewhere"), "partition 1 is still behind");
+
+        service.onListenerIdle(idle(List.of(first, second), consumer));
+        assertFalse(service.isRevoked("elsewhere"));
+        verify(invalidatedTokenRepository, times(1)).existsById("elsewhere");
+        verify(consumer, times(1)).endOffsets(any(), any(Duration.class));
+    }
+
+    @Test
+    void idleEventsBeforeAssignmentOrWithoutABrokerDoNotCountAsCaughtUp() {
+        when(invalidatedTokenRepository.existsById("elsewhere")).thenReturn(true);
+        TopicPartition partition = new TopicPartition("token-revocation", 0);
+        @SuppressWarnings("unchecked")
+        Consumer<String, String> consumer = mock(Consumer.class);
+        when(consumer.endOffsets(any(), any(Duration.class))).thenThrow(new TimeoutException("broker unreachable"));
+
+        service.onListenerIdle(idle(List.of(), consumer));
+        service.onListenerIdle(idle(List.of(partition), consumer));
+
+        assertTrue(service.isRevoked("elsewhere"));
+    }
+
+    @Test
+    void wheelDropsTokensOnceTheyExpire() throws InterruptedException {
+        service.revoke("short", inMillis(500));
+
+        service.advance();
+        assertTrue(service.isRevoked("short"));
+
+        Thread.sleep(600);
+        service.advance();
+        assertFalse(service.isRevoked("short"));
+        assertTrue(service.isRevoked("loaded"));
+    }
+
+    @Test
+    void purgeDeletesInBatchesUntilAShortBatch() {
+        when(invalidatedTokenRepository.deleteExpired(any(), anyInt())).thenReturn(2, 2, 1);
+
+        service.purgeExpired();
+
+        verify(invalidatedTokenRepository, times(3)).deleteExpired(any(), eq(2));
+    }
+
+    private ListenerContainerIdleEvent idle(List<TopicPartition> partitions, Consumer<?, ?> consumer) {
+        return new ListenerContainerIdleEvent(this, this, 1_000, "token-revocation-0", partitions, consumer, false);
+    }
+
+    private static Date inMillis(long millis) {
+        return new Date(System.currentTimeMillis() + millis);
+    }
+}
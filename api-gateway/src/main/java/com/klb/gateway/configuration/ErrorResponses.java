@@ -0,0 +1,61 @@
+package com.klb.gateway.configuration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klb.gateway.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Error bodies the gateway writes itself, rendered to JSON once at startup. Each response wraps a read-only
+ * view of the shared bytes, so a rejection allocates no JSON, string or byte array.
+ */
+@Component
+public class ErrorResponses {
+
+    public enum GatewayError {
+        UNAUTHENTICATED(1401, "Unauthenticated", HttpStatus.UNAUTHORIZED);
+
+        private final int code;
+        private final String message;
+        private final HttpStatus status;
+
+        GatewayError(int code, String message, HttpStatus status) {
+            this.code = code;
+            this.message = message;
+            this.status = status;
+        }
+    }
+
+    private final Map<GatewayError, ByteBuffer> bodies = new EnumMap<>(GatewayError.class);
+
+    public ErrorResponses(ObjectMapper objectMapper) throws JsonProcessingException {
+        for (GatewayError error : GatewayError.values()) {
+            ApiResponse<?> apiResponse = ApiResponse.builder()
+                    .code(error.code)
+                    .message(error.message)
+                    .build();
+            bodies.put(error, ByteBuffer.wrap(objectMapper.writeValueAsBytes(apiResponse)).asReadOnlyBuffer());
+        }
+    }
+
+    public Mono<Void> write(ServerHttpResponse response, GatewayError error) {
+        ByteBuffer body = bodies.get(error);
+
+        response.setStatusCode(error.status);
+        HttpHeaders headers = response.getHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(body.remaining());
+
+        // duplicate: own position and limit over the shared bytes, nothing is copied
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.duplicate())));
+    }
+}
@@ -0,0 +1,48 @@
+package com.klb.gateway.configuration;
+
+import com.klb.gateway.service.VerifiedTokenCache.VerifiedToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Verifies a token at most once per request. The first verification stores the {@link VerifiedToken} on the
+ * exchange attributes; the security chain and {@link AuthenticationFilter} run in the same request, so the
+ * filter reads the stored result with {@link #verified} instead of hashing or checking the token again. The
+ * exchange is taken from the Reactor context, where Spring Security's filter chain puts it.
+ */
+@RequiredArgsConstructor
+public class ExchangeCachingJwtDecoder implements ReactiveJwtDecoder {
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = ExchangeCachingJwtDecoder.class.getName() + ".verifiedToken";
+
+    private final Function<String, Mono<VerifiedToken>> verifier;
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        return Mono.deferContextual(context -> {
+            ServerWebExchange exchange = context.getOrDefault(ServerWebExchange.class, null);
+            if (exchange == null)
+                return verifier.apply(token).map(VerifiedToken::jwt);
+
+            VerifiedToken verified = verified(exchange, token);
+            if (verified != null)
+                return Mono.just(verified.jwt());
+
+            return verifier.apply(token)
+                    .doOnNext(result -> exchange.getAttributes().put(VERIFIED_TOKEN_ATTRIBUTE, result))
+                    .map(VerifiedToken::jwt);
+        });
+    }
+
+    /**
+     * The token verified earlier in this request, or {@code null} when {@code token} was not verified here.
+     */
+    public static VerifiedToken verified(ServerWebExchange exchange, String token) {
+        VerifiedToken verified = exchange.getAttribute(VERIFIED_TOKEN_ATTRIBUTE);
+        return verified != null && verified.jwt().getTokenValue().equals(token) ? verified : null;
+    }
+}
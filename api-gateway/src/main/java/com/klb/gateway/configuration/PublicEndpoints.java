@@ -0,0 +1,58 @@
+package com.klb.gateway.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * The endpoints reachable without a token, shared by {@link SecurityConfig} and {@link AuthenticationFilter}.
+ * Patterns are parsed once at startup; matching a request walks the parsed patterns without building strings
+ * or compiling regexes.
+ */
+@Component
+public class PublicEndpoints {
+    // gateway's own endpoints, outside the api prefix
+    private static final String[] GATEWAY_ENDPOINTS = {
+            "/auth/**"
+    };
+
+    // routed endpoints, below app.api-prefix
+    private static final String[] ROUTED_ENDPOINTS = {
+            "/identity/auth/**",
+            "/identity/users/registration",
+            "/notification/email/send",
+            "/file/media/download/**"
+    };
+
+    private final String[] patterns;
+    private final PathPattern[] pathPatterns;
+
+    public PublicEndpoints(@Value("${app.api-prefix}") String apiPrefix) {
+        this.patterns = Stream.concat(
+                        Arrays.stream(GATEWAY_ENDPOINTS),
+                        Arrays.stream(ROUTED_ENDPOINTS).map(pattern -> apiPrefix + pattern))
+                .toArray(String[]::new);
+        this.pathPatterns = Arrays.stream(patterns)
+                .map(PathPatternParser.defaultInstance::parse)
+                .toArray(PathPattern[]::new);
+    }
+
+    public String[] patterns() {
+        return patterns.clone();
+    }
+
+    public boolean matches(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pathPattern : pathPatterns) {
+            if (pathPattern.matches(path))
+                return true;
+        }
+        return false;
+    }
+}
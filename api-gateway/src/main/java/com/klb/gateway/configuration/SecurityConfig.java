@@ -1,5 +1,8 @@
 package com.klb.gateway.configuration;
 
+import com.klb.gateway.service.JwkSetStore;
+import com.klb.gateway.service.VerifiedTokenCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,24 +18,13 @@ import org.springframework.beans.factory.annotation.Value;
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
-    private final String[] PUBLIC_ENDPOINTS = {
-            "/auth/**",
-            "/api/v1/identity/auth/**",
-            "/api/v1/identity/users/registration",
-            "/api/v1/notification/email/send",
-            "/api/v1/file/media/download/**"
-    };
-
-    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
-    private String jwkSetUri;
-
     @Autowired
     private JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
     @Bean
-    public SecurityWebFilterChain filterChain(ServerHttpSecurity httpSecurity) {
+    public SecurityWebFilterChain filterChain(ServerHttpSecurity httpSecurity, PublicEndpoints publicEndpoints) {
         httpSecurity.authorizeExchange(request -> request
-                .pathMatchers(PUBLIC_ENDPOINTS).permitAll()
+                .pathMatchers(publicEndpoints.patterns()).permitAll()
                 .anyExchange().authenticated());
 
         httpSecurity.oauth2ResourceServer(oauth2 -> oauth2
@@ -45,7 +37,15 @@ public class SecurityConfig {
     }
 
     @Bean
-    public ReactiveJwtDecoder reactiveJwtDecoder() {
-        return NimbusReactiveJwtDecoder.withJwkSetUri(jwkSetUri).build();
+    public VerifiedTokenCache verifiedTokenCache(
+            @Value("${app.token-cache.max-size:100000}") long maxSize, MeterRegistry meterRegistry, JwkSetStore jwkSetStore) {
+        // keys come from the prefetched store instead of a lazy fetch on the first request
+        return new VerifiedTokenCache(NimbusReactiveJwtDecoder.withJwkSource(jwkSetStore::select).build(), maxSize, meterRegistry);
+    }
+
+    // shared by the resource server and AuthenticationFilter, one verification per request
+    @Bean
+    public ReactiveJwtDecoder reactiveJwtDecoder(VerifiedTokenCache verifiedTokenCache) {
+        return new ExchangeCachingJwtDecoder(verifiedTokenCache::verify);
     }
 }
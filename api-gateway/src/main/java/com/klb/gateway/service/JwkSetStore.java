@@ -0,0 +1,154 @@
+package com.klb.gateway.service;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keycloak's signing keys, held in memory so verifying a token never waits on Keycloak. The key set is fetched
+ * at startup and refreshed in the background, and a token signed with an unknown {@code kid} triggers one
+ * re-fetch shared by all requests waiting on it, at most once per {@code app.jwks.min-refetch-interval}.
+ * <p>
+ * Every fetched key set is written to {@code app.jwks.store-file} and read back at startup, so the gateway
+ * starts verifying with the last known keys even if Keycloak is slow or down.
+ */
+@Service
+@Slf4j
+public class JwkSetStore implements InitializingBean {
+
+    private final WebClient webClient;
+    private final String jwkSetUri;
+    private final Path storeFile;
+    private final Duration fetchTimeout;
+    private final Duration minRefetchInterval;
+
+    private final AtomicReference<JWKSet> keys = new AtomicReference<>(new JWKSet());
+    private Mono<JWKSet> inFlight;
+    private volatile long lastFetchStartedAt;
+
+    public JwkSetStore(WebClient webClient,
+                       @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+                       @Value("${app.jwks.store-file:data/jwks.json}") Path storeFile,
+                       @Value("${app.jwks.fetch-timeout:PT3S}") Duration fetchTimeout,
+                       @Value("${app.jwks.min-refetch-interval:PT10S}") Duration minRefetchInterval) {
+        this.webClient = webClient;
+        this.jwkSetUri = jwkSetUri;
+        this.storeFile = storeFile;
+        this.fetchTimeout = fetchTimeout;
+        this.minRefetchInterval = minRefetchInterval;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (Files.exists(storeFile)) {
+            try {
+                keys.set(JWKSet.load(storeFile.toFile()));
+                log.info("Loaded {} signing keys from {}", keys.get().getKeys().size(), storeFile);
+            } catch (Exception e) {
+                log.warn("Could not read stored signing keys from {}: {}", storeFile, e.getMessage());
+            }
+        }
+
+        refresh();
+    }
+
+    /**
+     * The keys matching the token header; a token with an unknown key id re-fetches the key set first.
+     */
+    public Flux<JWK> select(SignedJWT jwt) {
+        JWKMatcher matcher = JWKMatcher.forJWSHeader(jwt.getHeader());
+        if (matcher == null)
+            return Flux.empty();
+
+        JWKSelector selector = new JWKSelector(matcher);
+        List<JWK> known = selector.select(keys.get());
+        if (!known.isEmpty())
+            return Flux.fromIterable(known);
+
+        // unknown kid: Keycloak may have rotated its keys
+        return refetch()
+                .onErrorResume(e -> Mono.just(keys.get()))
+                .flatMapIterable(selector::select);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwks.refresh-interval:PT5M}", initialDelayString = "${app.jwks.refresh-interval:PT5M}")
+    public void refresh() {
+        try {
+            fetch().block();
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh signing keys from {}, keeping {} known keys: {}",
+                    jwkSetUri, keys.get().getKeys().size(), e.getMessage());
+        }
+    }
+
+    // joins a running fetch; only starting a new one is rate limited, so a burst of forged kids cannot flood Keycloak
+    private synchronized Mono<JWKSet> refetch() {
+        if (inFlight == null && System.currentTimeMillis() - lastFetchStartedAt < minRefetchInterval.toMillis())
+            return Mono.empty();
+        return fetch();
+    }
+
+    // single flight: callers arriving while a fetch is running share its result
+    private synchronized Mono<JWKSet> fetch() {
+        if (inFlight == null) {
+            lastFetchStartedAt = System.currentTimeMillis();
+            inFlight = webClient.get()
+                    .uri(jwkSetUri)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .timeout(fetchTimeout)
+                    .map(this::parse)
+                    .publishOn(Schedulers.boundedElastic())
+                    .doOnNext(this::store)
+                    .doFinally(signal -> clearInFlight())
+                    .cache();
+        }
+        return inFlight;
+    }
+
+    private synchronized void clearInFlight() {
+        inFlight = null;
+    }
+
+    private JWKSet parse(String body) {
+        try {
+            return JWKSet.parse(body);
+        } catch (java.text.ParseException e) {
+            throw new IllegalStateException("Invalid JWK set from " + jwkSetUri, e);
+        }
+    }
+
+    private void store(JWKSet jwkSet) {
+        keys.set(jwkSet);
+        try {
+            Path parent = storeFile.toAbsolutePath().getParent();
+            if (parent != null)
+                Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, storeFile.getFileName().toString(), ".tmp");
+            Files.writeString(temp, jwkSet.toString(true), StandardCharsets.UTF_8);
+            Files.move(temp, storeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not store signing keys to {}: {}", storeFile, e.getMessage());
+        }
+    }
+}
@@ -1,9 +1,8 @@
 package com.klb.gateway.service;
 
+import com.klb.gateway.service.VerifiedTokenCache.VerifiedToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -12,21 +11,14 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class KeycloakJwtService {
 
-    private final ReactiveJwtDecoder jwtDecoder;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public Mono<Boolean> validateToken(String token) {
-        return jwtDecoder.decode(token)
-                .map(jwt -> {
-                    log.info("Token validated successfully for subject: {}", jwt.getSubject());
-                    return true;
-                })
-                .onErrorResume(throwable -> {
-                    log.error("Token validation failed: {}", throwable.getMessage());
-                    return Mono.just(false);
-                });
-    }
-
-    public Mono<Jwt> decodeToken(String token) {
-        return jwtDecoder.decode(token);
+    /**
+     * Verifies and decodes the token through the cache, for a request the security chain has not verified.
+     */
+    public Mono<VerifiedToken> verifyToken(String token) {
+        return verifiedTokenCache.verify(token)
+                .doOnNext(verified -> log.debug("Token validated for subject: {}", verified.userId()))
+                .doOnError(throwable -> log.debug("Token validation failed: {}", throwable.getMessage()));
     }
 }
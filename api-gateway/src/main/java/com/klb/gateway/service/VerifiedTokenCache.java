@@ -0,0 +1,100 @@
+package com.klb.gateway.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verified tokens keyed by the SHA-256 of the token, so a client reusing its access token costs one hash
+ * per request instead of a parse and an RSA check. Each entry keeps the decoded {@link Jwt} and the
+ * {@code X-User-*} header values and expires at the token's {@code exp}; the cache is bounded by size.
+ * Concurrent misses for the same token share one verification, and failed verifications are not kept.
+ * Hits, misses and evictions are exported as the {@code cache.*} meters tagged {@code cache=verified-tokens}.
+ */
+@Slf4j
+public class VerifiedTokenCache {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final ReactiveJwtDecoder delegate;
+    private final AsyncCache<ByteBuffer, VerifiedToken> cache;
+
+    public VerifiedTokenCache(ReactiveJwtDecoder delegate, long maxSize, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiration())
+                .recordStats()
+                .<ByteBuffer, VerifiedToken>buildAsync(), "verified-tokens");
+    }
+
+    public Mono<VerifiedToken> verify(String token) {
+        ByteBuffer key = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+
+        // a cancelled request must not cancel the verification other requests are waiting on
+        return Mono.fromFuture(cache.get(key, (k, executor) -> delegate.decode(token)
+                .map(VerifiedToken::from)
+                .toFuture()), true);
+    }
+
+    public record VerifiedToken(Jwt jwt, String userId, String email, String username, String roles) {
+
+        public static VerifiedToken from(Jwt jwt) {
+            // Extract roles từ realm_access object
+            String roles = "";
+            try {
+                Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+                if (realmAccess != null && realmAccess.containsKey("roles")) {
+                    @SuppressWarnings("unchecked")
+                    List<String> rolesList = (List<String>) realmAccess.get("roles");
+                    roles = String.join(",", rolesList);
+                }
+            } catch (Exception e) {
+                log.warn("Could not extract roles from token: {}", e.getMessage());
+            }
+
+            return new VerifiedToken(jwt, jwt.getSubject(), jwt.getClaimAsString("email"),
+                    jwt.getClaimAsString("preferred_username"), roles);
+        }
+    }
+
+    private static class UntilExpiration implements Expiry<ByteBuffer, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken token, long currentTime) {
+            Instant expiresAt = token.jwt().getExpiresAt();
+            if (expiresAt == null)
+                return 0;
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(expiresAt.toEpochMilli() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
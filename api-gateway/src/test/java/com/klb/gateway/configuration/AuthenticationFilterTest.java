@@ -0,0 +1,101 @@
+package com.klb.gateway.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klb.gateway.service.KeycloakJwtService;
+import com.klb.gateway.service.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AuthenticationFilterTest {
+    private static final String PATH = "/api/v1/card-service/cards";
+
+    private final VerifiedTokenCache verifiedTokenCache = spy(new VerifiedTokenCache(
+            token -> Mono.just(jwt(token)), 100, new SimpleMeterRegistry()));
+    private final ExchangeCachingJwtDecoder decoder = new ExchangeCachingJwtDecoder(verifiedTokenCache::verify);
+    private final AuthenticationFilter filter;
+    private final AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+
+    AuthenticationFilterTest() throws Exception {
+        filter = new AuthenticationFilter(new KeycloakJwtService(verifiedTokenCache),
+                new ErrorResponses(new ObjectMapper()), new PublicEndpoints("/api/v1"));
+    }
+
+    @Test
+    void aTokenTheSecurityChainVerifiedIsLookedUpOncePerRequest() {
+        for (int request = 0; request < 3; request++) {
+            MockServerWebExchange exchange = exchange("Bearer token");
+            decoder.decode("token").contextWrite(Context.of(ServerWebExchange.class, exchange)).block();
+            filter.filter(exchange, forward()).block();
+
+            HttpHeaders headers = forwarded.get().getHeaders();
+            assertEquals("user-1", headers.getFirst("X-User-Id"));
+            assertEquals("USER,ADMIN", headers.getFirst("X-User-Roles"));
+        }
+
+        verify(verifiedTokenCache, times(3)).verify("token");
+    }
+
+    @Test
+    void aTokenNotVerifiedInThisRequestGoesThroughTheCache() {
+        MockServerWebExchange exchange = exchange("Bearer other");
+        decoder.decode("token").contextWrite(Context.of(ServerWebExchange.class, exchange)).block();
+        filter.filter(exchange, forward()).block();
+
+        assertEquals("user-1", forwarded.get().getHeaders().getFirst("X-User-Id"));
+        verify(verifiedTokenCache).verify("other");
+    }
+
+    @Test
+    void aFailedVerificationIsRejected() {
+        doReturn(Mono.error(new BadJwtException("signature"))).when(verifiedTokenCache).verify(anyString());
+        MockServerWebExchange exchange = exchange("Bearer token");
+
+        filter.filter(exchange, forward()).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+    }
+
+    private GatewayFilterChain forward() {
+        return exchange -> {
+            forwarded.set(exchange.getRequest());
+            return Mono.empty();
+        };
+    }
+
+    private static MockServerWebExchange exchange(String authorization) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(PATH).header(HttpHeaders.AUTHORIZATION, authorization));
+    }
+
+    private static Jwt jwt(String token) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user-1")
+                .claim("email", "user@klb.vn")
+                .claim("preferred_username", "user")
+                .claim("realm_access", Map.of("roles", List.of("USER", "ADMIN")))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+    }
+}
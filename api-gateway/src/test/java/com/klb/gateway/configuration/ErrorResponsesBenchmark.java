@@ -0,0 +1,70 @@
+package com.klb.gateway.configuration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klb.gateway.configuration.ErrorResponses.GatewayError;
+import com.klb.gateway.dto.ApiResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The 401 the gateway writes for a request without a valid token: the pre-rendered {@link ErrorResponses} body
+ * against serializing an {@link ApiResponse} per rejection, as the filter and entry point did before. Every
+ * operation writes into a fresh mock response, whose own cost {@code emptyResponse} measures; the difference is
+ * what the rendering allocates, so read {@code gc.alloc.rate.norm} from the GC profiler.
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *   -Dexec.args="-cp %classpath org.openjdk.jmh.Main ErrorResponsesBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorResponsesBenchmark {
+
+    ObjectMapper objectMapper;
+    ErrorResponses errorResponses;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new ObjectMapper();
+        errorResponses = new ErrorResponses(objectMapper);
+    }
+
+    @Benchmark
+    public MockServerHttpResponse emptyResponse() {
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.setComplete().block();
+        return response;
+    }
+
+    @Benchmark
+    public MockServerHttpResponse preRendered() {
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        errorResponses.write(response, GatewayError.UNAUTHENTICATED).block();
+        return response;
+    }
+
+    @Benchmark
+    public MockServerHttpResponse renderedPerRejection() throws JsonProcessingException {
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        ApiResponse<?> apiResponse = ApiResponse.builder()
+                .code(1401)
+                .message("Unauthenticated")
+                .build();
+        String body = objectMapper.writeValueAsString(apiResponse);
+
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes()))).block();
+        return response;
+    }
+}
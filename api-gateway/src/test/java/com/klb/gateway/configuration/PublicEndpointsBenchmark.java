@@ -0,0 +1,93 @@
+package com.klb.gateway.configuration;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches 10 000 synthetic request paths, about one in ten public, against the public endpoint list: the
+ * parsed {@link PublicEndpoints} patterns against the filter's previous check, which built and compiled a
+ * regex per pattern on every request.
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *   -Dexec.args="-cp %classpath org.openjdk.jmh.Main PublicEndpointsBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicEndpointsBenchmark {
+    private static final String API_PREFIX = "/api/v1";
+    private static final int PATHS = 10_000;
+
+    private static final String[] PUBLIC_PATHS = {
+            "/auth/token",
+            API_PREFIX + "/identity/auth/token",
+            API_PREFIX + "/identity/users/registration",
+            API_PREFIX + "/notification/email/send",
+            API_PREFIX + "/file/media/download/"
+    };
+
+    private static final String[] PROTECTED_PREFIXES = {
+            API_PREFIX + "/card-service/cards/",
+            API_PREFIX + "/account-service/accounts/",
+            API_PREFIX + "/notification/templates/",
+            API_PREFIX + "/identity/users/"
+    };
+
+    // the filter's list before PublicEndpoints, as regexes below the api prefix
+    private static final String[] REGEX_ENDPOINTS = Arrays.stream(new String[]{
+            "/auth/.*",
+            "/identity/auth/.*",
+            "/identity/users/registration",
+            "/notification/email/send",
+            "/file/media/download/.*"
+    }).map(pattern -> API_PREFIX + pattern).toArray(String[]::new);
+
+    PublicEndpoints publicEndpoints;
+    ServerHttpRequest[] requests;
+    int cursor;
+
+    @Setup
+    public void setUp() {
+        publicEndpoints = new PublicEndpoints(API_PREFIX);
+        SplittableRandom random = new SplittableRandom(42);
+        requests = new ServerHttpRequest[PATHS];
+        for (int i = 0; i < PATHS; i++) {
+            String path = random.nextInt(10) == 0
+                    ? PUBLIC_PATHS[random.nextInt(PUBLIC_PATHS.length)]
+                    : PROTECTED_PREFIXES[random.nextInt(PROTECTED_PREFIXES.length)] + random.nextInt(1_000_000);
+            if (path.endsWith("/"))
+                path += "file-" + i + ".png";
+            requests[i] = MockServerHttpRequest.get(path).build();
+        }
+    }
+
+    private ServerHttpRequest next() {
+        ServerHttpRequest request = requests[cursor];
+        cursor = (cursor + 1) % PATHS;
+        return request;
+    }
+
+    @Benchmark
+    public boolean parsedPatterns() {
+        return publicEndpoints.matches(next());
+    }
+
+    @Benchmark
+    public boolean regexPerRequest() {
+        String path = next().getURI().getPath();
+        if (path.startsWith("/auth/"))
+            return true;
+        for (String pattern : REGEX_ENDPOINTS) {
+            if (path.matches(pattern))
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+package com.klb.gateway.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicEndpointsTest {
+
+    private final PublicEndpoints publicEndpoints = new PublicEndpoints("/api/v1");
+
+    @Test
+    void securityChainAndFilterShareTheSameList() {
+        assertArrayEquals(new String[]{
+                "/auth/**",
+                "/api/v1/identity/auth/**",
+                "/api/v1/identity/users/registration",
+                "/api/v1/notification/email/send",
+                "/api/v1/file/media/download/**"
+        }, publicEndpoints.patterns());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/auth/token",
+            "/auth/refresh/now",
+            "/api/v1/identity/auth/token",
+            "/api/v1/identity/users/registration",
+            "/api/v1/notification/email/send",
+            "/api/v1/file/media/download/a/b.png"
+    })
+    void publicPathsMatch(String path) {
+        assertTrue(publicEndpoints.matches(MockServerHttpRequest.get(path).build()), path);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // only the gateway's own /auth is public, not an /auth below the api prefix
+            "/api/v1/auth/token",
+            "/api/v1/identity/users",
+            "/api/v1/identity/users/registration/extra",
+            "/api/v1/notification/email/send-all",
+            "/api/v1/card-service/cards",
+            "/authx/token",
+            "/api/v2/identity/auth/token"
+    })
+    void otherPathsDoNotMatch(String path) {
+        assertFalse(publicEndpoints.matches(MockServerHttpRequest.get(path).build()), path);
+    }
+}
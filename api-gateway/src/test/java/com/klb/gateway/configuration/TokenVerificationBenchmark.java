@@ -0,0 +1,122 @@
+package com.klb.gateway.configuration;
+
+import com.klb.gateway.service.VerifiedTokenCache;
+import com.klb.gateway.service.VerifiedTokenCache.VerifiedToken;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Load test of the gateway's token checks: every operation is one request that passes the security chain's
+ * decode and then {@link AuthenticationFilter}'s verification, with clients reusing {@code tokenCount} tokens.
+ * The decoder at the bottom does the real RS256 check and counts it; after each iteration the number of RSA
+ * verifications per request is printed. Compares one decode per caller (before), one per request through
+ * {@link ExchangeCachingJwtDecoder}, and the {@link VerifiedTokenCache} behind it that the gateway runs today,
+ * where a reused token costs one hash per request.
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *   -Dexec.args="-cp %classpath org.openjdk.jmh.Main TokenVerificationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenVerificationBenchmark {
+    private static final String PATH = "/api/v1/card-service/cards";
+
+    @Param({"1", "100"})
+    int tokenCount;
+
+    final LongAdder verifications = new LongAdder();
+    final LongAdder requests = new LongAdder();
+
+    String[] tokens;
+    int cursor;
+    ServerWebExchange exchange;
+    ReactiveJwtDecoder rsa;
+    ReactiveJwtDecoder exchangeCaching;
+    VerifiedTokenCache verifiedTokenCache;
+    ReactiveJwtDecoder cachedSecurityChain;
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("benchmark").generate();
+        RSASSASigner signer = new RSASSASigner(key);
+        tokens = new String[tokenCount];
+        for (int i = 0; i < tokenCount; i++) {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                    new JWTClaimsSet.Builder()
+                            .subject("user-" + i)
+                            .expirationTime(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                            .build());
+            jwt.sign(signer);
+            tokens[i] = jwt.serialize();
+        }
+
+        // the decoders only use the exchange's attributes; building an exchange per request would cost more than
+        // the checks under test, so one is reused and its attributes cleared per request
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get(PATH));
+
+        ReactiveJwtDecoder nimbus = NimbusReactiveJwtDecoder.withPublicKey(key.toRSAPublicKey()).build();
+        rsa = token -> {
+            verifications.increment();
+            return nimbus.decode(token);
+        };
+        exchangeCaching = new ExchangeCachingJwtDecoder(token -> rsa.decode(token).map(VerifiedToken::from));
+        verifiedTokenCache = new VerifiedTokenCache(rsa, 100_000, new SimpleMeterRegistry());
+        cachedSecurityChain = new ExchangeCachingJwtDecoder(verifiedTokenCache::verify);
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf(" [%.4f RSA verifications per request]", (double) verifications.sumThenReset() / requests.sumThenReset());
+    }
+
+    @Benchmark
+    public Object decodePerCaller() {
+        return request(rsa, rsa::decode);
+    }
+
+    @Benchmark
+    public Object decodeOncePerExchange() {
+        return request(exchangeCaching, exchangeCaching::decode);
+    }
+
+    @Benchmark
+    public Object verifiedTokenCache() {
+        // the filter reads what the security chain stored on the exchange, as AuthenticationFilter does
+        return request(cachedSecurityChain, token -> Mono.justOrEmpty(ExchangeCachingJwtDecoder.verified(exchange, token))
+                .switchIfEmpty(Mono.defer(() -> verifiedTokenCache.verify(token))));
+    }
+
+    private Object request(ReactiveJwtDecoder securityChain, Function<String, Mono<?>> filter) {
+        String token = tokens[cursor];
+        cursor = (cursor + 1) % tokens.length;
+        requests.increment();
+
+        exchange.getAttributes().clear();
+        return securityChain.decode(token)
+                .then(Mono.defer(() -> filter.apply(token)))
+                .contextWrite(Context.of(ServerWebExchange.class, exchange))
+                .block();
+    }
+}
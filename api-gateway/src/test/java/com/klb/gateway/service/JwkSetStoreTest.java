@@ -0,0 +1,141 @@
+package com.klb.gateway.service;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwkSetStoreTest {
+
+    private static RSAKey k1;
+    private static RSAKey k2;
+
+    @TempDir
+    Path dir;
+
+    private HttpServer keycloak;
+    private String jwkSetUri;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicReference<JWKSet> served = new AtomicReference<>();
+    private final AtomicReference<CountDownLatch> gate = new AtomicReference<>(new CountDownLatch(0));
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        k1 = new RSAKeyGenerator(2048).keyID("k1").generate();
+        k2 = new RSAKeyGenerator(2048).keyID("k2").generate();
+    }
+
+    @BeforeEach
+    void startKeycloak() throws Exception {
+        served.set(new JWKSet(k1.toPublicJWK()));
+        keycloak = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        keycloak.createContext("/certs", exchange -> {
+            hits.incrementAndGet();
+            try {
+                gate.get().await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = served.get().toString(true).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        keycloak.setExecutor(null);
+        keycloak.start();
+        jwkSetUri = "http://localhost:" + keycloak.getAddress().getPort() + "/certs";
+    }
+
+    @AfterEach
+    void stopKeycloak() {
+        keycloak.stop(0);
+    }
+
+    @Test
+    void prefetchesAtStartupAndRefetchesOnceForARotatedKey() {
+        JwkSetStore store = store(jwkSetUri, Duration.ZERO);
+        store.afterPropertiesSet();
+        assertEquals(1, hits.get());
+
+        assertEquals(List.of("k1"), kids(store, "k1"));
+        assertEquals(1, hits.get(), "a known kid never reaches Keycloak");
+
+        served.set(new JWKSet(List.of(k1.toPublicJWK(), k2.toPublicJWK())));
+        assertEquals(List.of("k2"), kids(store, "k2"));
+        assertEquals(2, hits.get());
+        assertEquals(List.of("k2"), kids(store, "k2"));
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void concurrentUnknownKidsShareOneFetchEvenInsideTheRateLimit() throws Exception {
+        JwkSetStore store = store(jwkSetUri, Duration.ofHours(1));
+        served.set(new JWKSet(List.of(k1.toPublicJWK(), k2.toPublicJWK())));
+        CountDownLatch release = new CountDownLatch(1);
+        gate.set(release);
+
+        var first = store.select(token("k2")).map(JWK::getKeyID).collectList().toFuture();
+        while (hits.get() == 0)
+            Thread.sleep(10);
+        // a fetch has just started, so a new one would be rate limited; this caller must join it instead
+        var second = store.select(token("k2")).map(JWK::getKeyID).collectList().toFuture();
+        release.countDown();
+
+        assertEquals(List.of("k2"), first.get(15, TimeUnit.SECONDS));
+        assertEquals(List.of("k2"), second.get(15, TimeUnit.SECONDS));
+        assertEquals(1, hits.get());
+
+        assertEquals(List.of(), kids(store, "forged"), "no new fetch inside the rate limit");
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void coldStartsFromTheStoredKeysWhenKeycloakIsDown() {
+        store(jwkSetUri, Duration.ZERO).afterPropertiesSet();
+        keycloak.stop(0);
+
+        JwkSetStore restarted = store(jwkSetUri, Duration.ofHours(1));
+        restarted.afterPropertiesSet();
+
+        assertEquals(List.of("k1"), kids(restarted, "k1"));
+    }
+
+    private JwkSetStore store(String uri, Duration minRefetchInterval) {
+        // generous: the first fetch also pays for starting the HTTP client on a cold, possibly busy JVM
+        return new JwkSetStore(WebClient.create(), uri, dir.resolve("jwks.json"), Duration.ofSeconds(10),
+                minRefetchInterval);
+    }
+
+    private static List<String> kids(JwkSetStore store, String kid) {
+        return store.select(token(kid)).map(JWK::getKeyID).collectList().block(Duration.ofSeconds(15));
+    }
+
+    private static SignedJWT token(String kid) {
+        return new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(kid).build(),
+                new JWTClaimsSet.Builder().subject("user").build());
+    }
+}
@@ -0,0 +1,99 @@
+package com.klb.gateway.service;
+
+import com.klb.gateway.service.VerifiedTokenCache.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    void verifiesAReusedTokenOnceAndPrecomputesTheHeaders() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(token -> {
+            verifications.incrementAndGet();
+            return Mono.just(jwt(token, Instant.now().plusSeconds(60)));
+        }, 100, new SimpleMeterRegistry());
+
+        VerifiedToken first = cache.verify("token").block();
+        VerifiedToken second = cache.verify("token").block();
+
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+        assertEquals("user-1", first.userId());
+        assertEquals("user@klb.vn", first.email());
+        assertEquals("user", first.username());
+        assertEquals("USER,ADMIN", first.roles());
+    }
+
+    @Test
+    void concurrentMissesShareOneVerification() throws Exception {
+        Sinks.One<Jwt> pending = Sinks.one();
+        VerifiedTokenCache cache = new VerifiedTokenCache(token -> {
+            verifications.incrementAndGet();
+            return pending.asMono();
+        }, 100, new SimpleMeterRegistry());
+
+        CompletableFuture<VerifiedToken> first = cache.verify("token").toFuture();
+        CompletableFuture<VerifiedToken> second = cache.verify("token").toFuture();
+        assertFalse(first.isDone());
+        pending.tryEmitValue(jwt("token", Instant.now().plusSeconds(60)));
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void failedVerificationsAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(token -> verifications.incrementAndGet() == 1
+                ? Mono.error(new BadJwtException("signature"))
+                : Mono.just(jwt(token, Instant.now().plusSeconds(60))), 100, new SimpleMeterRegistry());
+
+        StepVerifier.create(cache.verify("token")).expectError(BadJwtException.class).verify(Duration.ofSeconds(5));
+        StepVerifier.create(cache.verify("token")).expectNextCount(1).verifyComplete();
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void entriesExpireWithTheToken() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(token -> {
+            verifications.incrementAndGet();
+            return Mono.just(jwt(token, Instant.now().plusMillis(300)));
+        }, 100, new SimpleMeterRegistry());
+
+        cache.verify("token").block();
+        cache.verify("token").block();
+        assertEquals(1, verifications.get());
+
+        Thread.sleep(400);
+        cache.verify("token").block();
+        assertEquals(2, verifications.get(), "an expired token is verified again, and rejected by the decoder");
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user-1")
+                .claim("email", "user@klb.vn")
+                .claim("preferred_username", "user")
+                .claim("realm_access", Map.of("roles", List.of("USER", "ADMIN")))
+                .issuedAt(Instant.now())
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
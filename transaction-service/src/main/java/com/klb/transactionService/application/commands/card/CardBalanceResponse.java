@@ -0,0 +1,41 @@
+package com.klb.transactionService.application.card.commands.card;
+
+import com.klb.transactionService.core.abstractions.ResponseData;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardBalanceResponse implements ResponseData {
+    private String cardId;
+    private String status;
+    private String message;
+
+    public static CardBalanceResponse success(String cardId) {
+        return CardBalanceResponse.builder()
+                .cardId(cardId)
+                .status("SUCCESS")
+                .message("Balance updated")
+                .build();
+    }
+
+    public static CardBalanceResponse declined(String cardId, String reason) {
+        return CardBalanceResponse.builder()
+                .cardId(cardId)
+                .status("DECLINED")
+                .message(reason)
+                .build();
+    }
+
+    public static CardBalanceResponse failed(String cardId, String error) {
+        return CardBalanceResponse.builder()
+                .cardId(cardId)
+                .status("FAILED")
+                .message(error)
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.klb.transactionService.application.card.commands.card;
+
+import com.klb.transactionService.core.abstractions.RequestData;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateCardsBatchCommand implements RequestData {
+    private List<CreateCardCommand> cards;
+}
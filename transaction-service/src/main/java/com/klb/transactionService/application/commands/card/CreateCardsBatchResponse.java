@@ -0,0 +1,42 @@
+package com.klb.transactionService.application.card.commands.card;
+
+import com.klb.transactionService.core.abstractions.ResponseData;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateCardsBatchResponse implements ResponseData {
+    private String status;
+    private String message;
+    private int total;
+    private int succeeded;
+    private int failed;
+    // cùng thứ tự với danh sách thẻ trong request
+    private List<CreateCardResponse> results;
+
+    public static CreateCardsBatchResponse completed(List<CreateCardResponse> results) {
+        int succeeded = (int) results.stream().filter(r -> "SUCCESS".equals(r.getStatus())).count();
+        return CreateCardsBatchResponse.builder()
+                .status("SUCCESS")
+                .message("Batch processed")
+                .total(results.size())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
+    public static CreateCardsBatchResponse failed(String error) {
+        return CreateCardsBatchResponse.builder()
+                .status("FAILED")
+                .message(error)
+                .build();
+    }
+}
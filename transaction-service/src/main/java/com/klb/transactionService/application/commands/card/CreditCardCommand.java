@@ -0,0 +1,16 @@
+package com.klb.transactionService.application.card.commands.card;
+
+import com.klb.transactionService.core.abstractions.NonTransactionalRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreditCardCommand implements NonTransactionalRequest {
+    private String cardId;
+    private BigDecimal amount;
+}
@@ -3,30 +3,42 @@ package com.klb.transactionService.application.handlers;
 import com.klb.transactionService.application.card.commands.card.CreateCardCommand;
 import com.klb.transactionService.application.card.commands.card.CreateCardResponse;
 import com.klb.transactionService.core.abstractions.Handler;
+import com.klb.transactionService.domain.entities.BalanceMovement;
 import com.klb.transactionService.domain.entities.Card;
 import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.enums.MovementType;
+import com.klb.transactionService.domain.event.card.CardCreatedEvent;
+import com.klb.transactionService.domain.repositories.BalanceJournalRepository;
 import com.klb.transactionService.domain.repositories.CardRepository;
+import com.klb.transactionService.domain.services.CardNumberAllocator;
 import com.klb.transactionService.shared.utils.CVVGenerator;
-import com.klb.transactionService.shared.utils.CardNumberGenerator;
+import com.klb.transactionService.shared.utils.MinorUnits;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 
 @Component
 @Slf4j
 public class CreateCardCommandHandler implements Handler<CreateCardCommand, CreateCardResponse> {
 
     private final CardRepository cardRepository;
-    private final CardNumberGenerator cardNumberGenerator;
+    private final CardNumberAllocator cardNumberAllocator;
     private final CVVGenerator cvvGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BalanceJournalRepository balanceJournal;
 
-    public CreateCardCommandHandler(CardRepository cardRepository) {
+    public CreateCardCommandHandler(CardRepository cardRepository, CardNumberAllocator cardNumberAllocator,
+                                    ApplicationEventPublisher eventPublisher, BalanceJournalRepository balanceJournal) {
         this.cardRepository = cardRepository;
-        this.cardNumberGenerator = new CardNumberGenerator();
+        this.balanceJournal = balanceJournal;
+        this.cardNumberAllocator = cardNumberAllocator;
+        this.eventPublisher = eventPublisher;
         this.cvvGenerator = new CVVGenerator();
     }
 
@@ -40,7 +52,7 @@ public class CreateCardCommandHandler implements Handler<CreateCardCommand, Crea
             validateRequest(request);
 
             // 2. Generate card details
-            String cardNumber = generateUniqueCardNumber();
+            String cardNumber = cardNumberAllocator.next();
             String cvv = cvvGenerator.generate();
             Date expiryDate = generateExpiryDate();
 
@@ -59,12 +71,14 @@ public class CreateCardCommandHandler implements Handler<CreateCardCommand, Crea
                     .build();
 
             // 4. Save to database
-            cardRepository.save(card);
+            Card savedCard = cardRepository.save(card);
+            balanceJournal.appendAll(List.of(openingMovement(savedCard)));
+            eventPublisher.publishEvent(new CardCreatedEvent(this, savedCard));
 
             log.info("Card created successfully: {}", request.getCardId());
 
             return CreateCardResponse.success(
-                    request.getCardId(),
+                    savedCard.getCardId(),
                     cardNumber,
                     expiryDate
             );
@@ -74,12 +88,13 @@ public class CreateCardCommandHandler implements Handler<CreateCardCommand, Crea
             return CreateCardResponse.failed(request.getCardId(), e.getMessage());
 
         } catch (Exception e) {
+            // rethrown so the transaction rolls back: a card must never be kept without its opening movement
             log.error("Error creating card: {}", e.getMessage(), e);
-            return CreateCardResponse.failed(request.getCardId(), "Internal server error");
+            throw e;
         }
     }
 
-    private void validateRequest(CreateCardCommand request) {
+    static void validateRequest(CreateCardCommand request) {
         if (request.getAccountId() == null || request.getAccountId().trim().isEmpty()) {
             throw new ValidationException("Account ID is required");
         }
@@ -92,23 +107,24 @@ public class CreateCardCommandHandler implements Handler<CreateCardCommand, Crea
         if (request.getCreditLimit() == null || request.getCreditLimit().compareTo(BigDecimal.ZERO) <= 0) {
             throw new ValidationException("Credit limit must be greater than zero");
         }
+        if (request.getCreditLimit().stripTrailingZeros().scale() > MinorUnits.SCALE) {
+            throw new ValidationException("Credit limit must have at most " + MinorUnits.SCALE + " decimal places");
+        }
     }
 
-    private String generateUniqueCardNumber() {
-        String cardNumber;
-        int attempts = 0;
-        do {
-            cardNumber = cardNumberGenerator.generate();
-            attempts++;
-            if (attempts > 10) {
-                throw new RuntimeException("Unable to generate unique card number");
-            }
-        } while (cardRepository.existsByCardNumber(cardNumber));
-
-        return cardNumber;
+    /**
+     * First journal line of a card: its opening available balance.
+     */
+    static BalanceMovement openingMovement(Card card) {
+        return BalanceMovement.builder()
+                .cardId(card.getCardId())
+                .type(MovementType.OPENING)
+                .amountMinor(MinorUnits.of(card.getAvailableBalance()))
+                .createdAt(card.getIssuanceAt())
+                .build();
     }
 
-    private Date generateExpiryDate() {
+    static Date generateExpiryDate() {
         Calendar calendar = Calendar.getInstance();
         calendar.add(Calendar.YEAR, 3);
         return calendar.getTime();
@@ -0,0 +1,114 @@
+package com.klb.transactionService.application.handlers;
+
+import com.klb.transactionService.application.card.commands.card.CreateCardCommand;
+import com.klb.transactionService.application.card.commands.card.CreateCardResponse;
+import com.klb.transactionService.application.card.commands.card.CreateCardsBatchCommand;
+import com.klb.transactionService.application.card.commands.card.CreateCardsBatchResponse;
+import com.klb.transactionService.core.abstractions.Handler;
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.event.card.CardCreatedEvent;
+import com.klb.transactionService.domain.repositories.BalanceJournalRepository;
+import com.klb.transactionService.domain.repositories.CardRepository;
+import com.klb.transactionService.domain.services.CardNumberAllocator;
+import com.klb.transactionService.shared.utils.CVVGenerator;
+import com.klb.transactionService.shared.utils.CardIds;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+@Component
+@Slf4j
+public class CreateCardsBatchCommandHandler implements Handler<CreateCardsBatchCommand, CreateCardsBatchResponse> {
+
+    private final CardRepository cardRepository;
+    private final CardNumberAllocator cardNumberAllocator;
+    private final CVVGenerator cvvGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BalanceJournalRepository balanceJournal;
+
+    @Value("${card.batch.max-size:10000}")
+    private int maxBatchSize;
+
+    public CreateCardsBatchCommandHandler(CardRepository cardRepository, CardNumberAllocator cardNumberAllocator,
+                                          ApplicationEventPublisher eventPublisher,
+                                          BalanceJournalRepository balanceJournal) {
+        this.cardRepository = cardRepository;
+        this.balanceJournal = balanceJournal;
+        this.cardNumberAllocator = cardNumberAllocator;
+        this.eventPublisher = eventPublisher;
+        this.cvvGenerator = new CVVGenerator();
+    }
+
+    @Override
+    @Transactional
+    public CreateCardsBatchResponse handle(CreateCardsBatchCommand request) {
+        List<CreateCardCommand> items = request.getCards();
+        if (items == null || items.isEmpty()) {
+            return CreateCardsBatchResponse.failed("Batch must contain at least one card");
+        }
+        if (items.size() > maxBatchSize) {
+            return CreateCardsBatchResponse.failed("Batch size must not exceed " + maxBatchSize);
+        }
+
+        log.info("Creating {} cards in batch", items.size());
+
+        // 1. Validate từng phần tử, phần tử lỗi được báo cáo riêng thay vì làm hỏng cả lô
+        CreateCardResponse[] results = new CreateCardResponse[items.size()];
+        List<Integer> validIndexes = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == null) {
+                results[i] = CreateCardResponse.failed(null, "Card request is required");
+                continue;
+            }
+            try {
+                CreateCardCommandHandler.validateRequest(items.get(i));
+                validIndexes.add(i);
+            } catch (CreateCardCommandHandler.ValidationException e) {
+                results[i] = CreateCardResponse.failed(items.get(i).getCardId(), e.getMessage());
+            }
+        }
+
+        // 2. Cấp số thẻ cho cả lô từ block đã giữ trước, không cần kiểm tra trùng trong DB
+        List<String> cardNumbers = cardNumberAllocator.next(validIndexes.size());
+
+        // 3. Insert bằng JDBC batch
+        Date issuanceAt = new Date();
+        Date expiryDate = CreateCardCommandHandler.generateExpiryDate();
+        List<Card> cards = new ArrayList<>(validIndexes.size());
+        for (int n = 0; n < validIndexes.size(); n++) {
+            CreateCardCommand item = items.get(validIndexes.get(n));
+            cards.add(Card.builder()
+                    .cardId(CardIds.next())
+                    .accountId(item.getAccountId())
+                    .cardNumber(cardNumbers.get(n))
+                    .cardHolderName(item.getCardHolderName())
+                    .cardType(item.getCardType())
+                    .cvvNumber(cvvGenerator.generate())
+                    .cardStatus(CardStatus.PENDING)
+                    .creditLimit(item.getCreditLimit())
+                    .availableBalance(item.getCreditLimit())
+                    .issuanceAt(issuanceAt)
+                    .expiryDate(expiryDate)
+                    .build());
+        }
+        cardRepository.saveAll(cards);
+        balanceJournal.appendAll(cards.stream().map(CreateCardCommandHandler::openingMovement).toList());
+
+        for (int n = 0; n < validIndexes.size(); n++) {
+            Card card = cards.get(n);
+            eventPublisher.publishEvent(new CardCreatedEvent(this, card));
+            results[validIndexes.get(n)] = CreateCardResponse.success(card.getCardId(), card.getCardNumber(), expiryDate);
+        }
+
+        log.info("Batch completed: {} created, {} rejected", cards.size(), items.size() - cards.size());
+        return CreateCardsBatchResponse.completed(Arrays.asList(results));
+    }
+}
@@ -0,0 +1,43 @@
+package com.klb.transactionService.application.handlers;
+
+import com.klb.transactionService.application.card.commands.card.CardBalanceResponse;
+import com.klb.transactionService.application.card.commands.card.CreditCardCommand;
+import com.klb.transactionService.core.abstractions.Handler;
+import com.klb.transactionService.domain.services.BalanceLanes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class CreditCardCommandHandler implements Handler<CreditCardCommand, CardBalanceResponse> {
+
+    private final BalanceLanes balanceLanes;
+
+    @Value("${card.balance.timeout:5s}")
+    private Duration timeout;
+
+    @Override
+    public CardBalanceResponse handle(CreditCardCommand request) {
+        long amountMinor;
+        try {
+            amountMinor = DebitCardCommandHandler.toPositiveMinorUnits(request.getCardId(), request.getAmount());
+        } catch (CreateCardCommandHandler.ValidationException e) {
+            return CardBalanceResponse.failed(request.getCardId(), e.getMessage());
+        }
+
+        try {
+            if (!balanceLanes.credit(request.getCardId(), amountMinor)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).join()) {
+                return CardBalanceResponse.failed(request.getCardId(), "Card not found");
+            }
+        } catch (CompletionException e) {
+            return DebitCardCommandHandler.laneFailure(request.getCardId(), e);
+        }
+        return CardBalanceResponse.success(request.getCardId());
+    }
+}
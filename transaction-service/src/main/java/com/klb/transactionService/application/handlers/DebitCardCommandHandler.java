@@ -0,0 +1,81 @@
+package com.klb.transactionService.application.handlers;
+
+import com.klb.transactionService.application.card.commands.card.CardBalanceResponse;
+import com.klb.transactionService.application.card.commands.card.DebitCardCommand;
+import com.klb.transactionService.core.abstractions.Handler;
+import com.klb.transactionService.domain.services.BalanceLanes;
+import com.klb.transactionService.shared.utils.MinorUnits;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DebitCardCommandHandler implements Handler<DebitCardCommand, CardBalanceResponse> {
+
+    private final BalanceLanes balanceLanes;
+
+    @Value("${card.balance.timeout:5s}")
+    private Duration timeout;
+
+    @Override
+    public CardBalanceResponse handle(DebitCardCommand request) {
+        long amountMinor;
+        try {
+            amountMinor = toPositiveMinorUnits(request.getCardId(), request.getAmount());
+        } catch (CreateCardCommandHandler.ValidationException e) {
+            return CardBalanceResponse.failed(request.getCardId(), e.getMessage());
+        }
+
+        try {
+            if (!balanceLanes.debit(request.getCardId(), amountMinor)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).join()) {
+                log.debug("Debit declined for card {}", request.getCardId());
+                return CardBalanceResponse.declined(request.getCardId(), "Insufficient funds or card unavailable");
+            }
+        } catch (CompletionException e) {
+            return laneFailure(request.getCardId(), e);
+        }
+        return CardBalanceResponse.success(request.getCardId());
+    }
+
+    static CardBalanceResponse laneFailure(String cardId, CompletionException e) {
+        if (e.getCause() instanceof RejectedExecutionException) {
+            return CardBalanceResponse.failed(cardId, "Too many pending balance operations, please retry");
+        }
+        if (e.getCause() instanceof TimeoutException) {
+            // the lane skips an operation whose caller gave up, unless it was already being written
+            log.warn("Balance operation on card {} timed out", cardId);
+            return CardBalanceResponse.failed(cardId, "Balance operation timed out, check the balance before retrying");
+        }
+        // rethrow the lane's own failure so RetryBehavior can recognise transient database errors
+        if (e.getCause() instanceof RuntimeException cause) {
+            throw cause;
+        }
+        throw e;
+    }
+
+    static long toPositiveMinorUnits(String cardId, BigDecimal amount) {
+        if (cardId == null || cardId.isBlank()) {
+            throw new CreateCardCommandHandler.ValidationException("Card ID is required");
+        }
+        if (amount == null || amount.signum() <= 0) {
+            throw new CreateCardCommandHandler.ValidationException("Amount must be greater than zero");
+        }
+        try {
+            return MinorUnits.of(amount);
+        } catch (ArithmeticException e) {
+            throw new CreateCardCommandHandler.ValidationException(
+                    "Amount must have at most " + MinorUnits.SCALE + " decimal places");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.klb.transactionService.application.handlers;
+
+import com.klb.transactionService.application.card.queries.card.GetCardByCardNumberQuery;
+import com.klb.transactionService.application.card.queries.card.GetCardByCardNumberResponse;
+import com.klb.transactionService.core.abstractions.Handler;
+import com.klb.transactionService.domain.repositories.CardReadRepository;
+import com.klb.transactionService.infrastructure.cache.CardViewCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class GetCardByCardNumberQueryHandler implements Handler<GetCardByCardNumberQuery, GetCardByCardNumberResponse> {
+
+    private final CardReadRepository cardReadRepository;
+    private final CardViewCache cardViewCache;
+
+    @Override
+    public GetCardByCardNumberResponse handle(GetCardByCardNumberQuery query) {
+        return new GetCardByCardNumberResponse(cardViewCache
+                .getByCardNumber(query.getCardNumber(), cardReadRepository::findByCardNumber)
+                .orElse(null));
+    }
+}
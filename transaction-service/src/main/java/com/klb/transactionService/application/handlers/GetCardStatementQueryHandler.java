@@ -0,0 +1,40 @@
+package com.klb.transactionService.application.handlers;
+
+import com.klb.transactionService.application.card.queries.card.CardStatementResponse;
+import com.klb.transactionService.application.card.queries.card.GetCardStatementQuery;
+import com.klb.transactionService.core.abstractions.Handler;
+import com.klb.transactionService.domain.entities.BalanceMovement;
+import com.klb.transactionService.domain.repositories.BalanceJournalRepository;
+import com.klb.transactionService.shared.utils.MinorUnits;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Statements are served from the balance journal only, so producing them never touches the hot card row.
+ */
+@Component
+@RequiredArgsConstructor
+public class GetCardStatementQueryHandler implements Handler<GetCardStatementQuery, CardStatementResponse> {
+
+    static final int MAX_LIMIT = 500;
+
+    private final BalanceJournalRepository balanceJournal;
+
+    @Override
+    public CardStatementResponse handle(GetCardStatementQuery query) {
+        int limit = query.getLimit() <= 0 ? MAX_LIMIT : Math.min(query.getLimit(), MAX_LIMIT);
+        List<BalanceMovement> movements = balanceJournal.findMovements(query.getCardId(), query.getAfterMovementId(), limit);
+        List<CardStatementResponse.Line> lines = movements.stream()
+                .map(movement -> new CardStatementResponse.Line(
+                        movement.getMovementId(),
+                        movement.getType(),
+                        MinorUnits.toDecimal(movement.getAmountMinor()),
+                        movement.getCreatedAt()))
+                .toList();
+        Long nextCursor = movements.size() == limit ? movements.get(movements.size() - 1).getMovementId() : null;
+        return new CardStatementResponse(query.getCardId(),
+                MinorUnits.toDecimal(balanceJournal.rebuildBalance(query.getCardId())), lines, nextCursor);
+    }
+}
@@ -0,0 +1,22 @@
+package com.klb.transactionService.application.handlers;
+
+import com.klb.transactionService.application.card.queries.card.CardListResponse;
+import com.klb.transactionService.application.card.queries.card.GetCardsByAccountQuery;
+import com.klb.transactionService.core.abstractions.Handler;
+import com.klb.transactionService.domain.repositories.CardReadRepository;
+import com.klb.transactionService.infrastructure.cache.CardViewCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class GetCardsByAccountQueryHandler implements Handler<GetCardsByAccountQuery, CardListResponse> {
+
+    private final CardReadRepository cardReadRepository;
+    private final CardViewCache cardViewCache;
+
+    @Override
+    public CardListResponse handle(GetCardsByAccountQuery query) {
+        return new CardListResponse(cardViewCache.getByAccountId(query.getAccountId(), cardReadRepository::findByAccountId));
+    }
+}
@@ -0,0 +1,32 @@
+package com.klb.transactionService.application.handlers;
+
+import com.klb.transactionService.application.card.queries.card.CardListResponse;
+import com.klb.transactionService.application.card.queries.card.GetCardsByStatusQuery;
+import com.klb.transactionService.core.abstractions.Handler;
+import com.klb.transactionService.domain.readmodel.CardView;
+import com.klb.transactionService.domain.repositories.CardReadRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Status lists churn with every status change and can be very large, so they are read
+ * straight from the projection, one keyset page at a time, instead of being cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class GetCardsByStatusQueryHandler implements Handler<GetCardsByStatusQuery, CardListResponse> {
+
+    static final int MAX_LIMIT = 500;
+
+    private final CardReadRepository cardReadRepository;
+
+    @Override
+    public CardListResponse handle(GetCardsByStatusQuery query) {
+        int limit = query.getLimit() <= 0 ? MAX_LIMIT : Math.min(query.getLimit(), MAX_LIMIT);
+        List<CardView> cards = cardReadRepository.findByCardStatus(query.getStatus(), query.getAfterCardId(), limit);
+        String nextCursor = cards.size() == limit ? cards.get(cards.size() - 1).getCardId() : null;
+        return new CardListResponse(cards, nextCursor);
+    }
+}
@@ -0,0 +1,22 @@
+package com.klb.transactionService.application.card.queries.card;
+
+import com.klb.transactionService.core.abstractions.ResponseData;
+import com.klb.transactionService.domain.readmodel.CardView;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardListResponse implements ResponseData {
+    private List<CardView> cards;
+    // truyền vào afterCardId để lấy trang tiếp theo, null khi đã hết dữ liệu
+    private String nextCursor;
+
+    public CardListResponse(List<CardView> cards) {
+        this(cards, null);
+    }
+}
@@ -0,0 +1,33 @@
+package com.klb.transactionService.application.card.queries.card;
+
+import com.klb.transactionService.core.abstractions.ResponseData;
+import com.klb.transactionService.domain.enums.MovementType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardStatementResponse implements ResponseData {
+    private String cardId;
+    // số dư dựng lại từ snapshot + nhật ký, không đọc cột available_balance
+    private BigDecimal balance;
+    private List<Line> movements;
+    // truyền vào after để lấy trang tiếp theo, null khi đã hết dữ liệu
+    private Long nextCursor;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Line {
+        private Long movementId;
+        private MovementType type;
+        private BigDecimal amount;
+        private Date createdAt;
+    }
+}
@@ -1,4 +1,13 @@
 package com.klb.transactionService.application.card.queries.card;
 
-public class GetCardByCardNumberQuery {
+import com.klb.transactionService.core.abstractions.QueryData;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetCardByCardNumberQuery implements QueryData {
+    private String cardNumber;
 }
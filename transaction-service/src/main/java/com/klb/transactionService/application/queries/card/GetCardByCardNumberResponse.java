@@ -1,4 +1,15 @@
 package com.klb.transactionService.application.card.queries.card;
 
-public class GetCardByCardNumberResponse {
+import com.klb.transactionService.core.abstractions.ResponseData;
+import com.klb.transactionService.domain.readmodel.CardView;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetCardByCardNumberResponse implements ResponseData {
+    // null khi không tìm thấy thẻ
+    private CardView card;
 }
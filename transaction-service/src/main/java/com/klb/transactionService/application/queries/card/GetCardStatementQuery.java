@@ -0,0 +1,16 @@
+package com.klb.transactionService.application.card.queries.card;
+
+import com.klb.transactionService.core.abstractions.QueryData;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetCardStatementQuery implements QueryData {
+    private String cardId;
+    // movementId cuối cùng của trang trước, null cho trang đầu tiên
+    private Long afterMovementId;
+    private int limit;
+}
@@ -0,0 +1,13 @@
+package com.klb.transactionService.application.card.queries.card;
+
+import com.klb.transactionService.core.abstractions.QueryData;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetCardsByAccountQuery implements QueryData {
+    private String accountId;
+}
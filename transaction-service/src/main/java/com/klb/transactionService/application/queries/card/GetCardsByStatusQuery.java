@@ -0,0 +1,17 @@
+package com.klb.transactionService.application.card.queries.card;
+
+import com.klb.transactionService.core.abstractions.QueryData;
+import com.klb.transactionService.domain.enums.CardStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetCardsByStatusQuery implements QueryData {
+    private CardStatus status;
+    // cardId cuối cùng của trang trước, null cho trang đầu tiên
+    private String afterCardId;
+    private int limit;
+}
@@ -0,0 +1,8 @@
+package com.klb.transactionService.core.abstractions;
+
+/**
+ * Marker for commands whose handler guarantees its own atomicity (single conditional statements, or work
+ * handed off to another thread); the bus opens no transaction, so no connection is held while it waits.
+ */
+public interface NonTransactionalRequest extends RequestData {
+}
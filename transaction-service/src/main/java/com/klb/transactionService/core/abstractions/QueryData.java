@@ -0,0 +1,7 @@
+package com.klb.transactionService.core.abstractions;
+
+/**
+ * Marker for read-only requests (queries); the bus runs them without a command transaction.
+ */
+public interface QueryData extends RequestData {
+}
@@ -0,0 +1,10 @@
+package com.klb.transactionService.core.mediator;
+
+public enum BusExecutionMode {
+    /** run {@code executeAsync} on the calling thread and return an already completed future */
+    CALLER,
+    /** bounded pool of platform threads with a bounded queue; rejects work when both are full */
+    PLATFORM,
+    /** one virtual thread per request, so a blocking repository call does not pin a platform thread */
+    VIRTUAL
+}
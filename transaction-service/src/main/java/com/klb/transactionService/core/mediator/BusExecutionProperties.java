@@ -0,0 +1,29 @@
+package com.klb.transactionService.core.mediator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "bus.execution")
+public class BusExecutionProperties {
+
+    private BusExecutionMode mode = BusExecutionMode.VIRTUAL;
+
+    /** worker threads for {@link BusExecutionMode#PLATFORM} */
+    private int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+    /** pending tasks accepted by {@link BusExecutionMode#PLATFORM} before new requests are rejected */
+    private int queueCapacity = 1000;
+
+    /** max in-flight executions per request type, keyed by the request simple class name */
+    private Map<String, Integer> concurrencyLimits = new HashMap<>();
+
+    /** how long a request waits for a free slot under its concurrency limit before it is answered as busy */
+    private Duration permitTimeout = Duration.ofMillis(100);
+}
@@ -0,0 +1,75 @@
+package com.klb.transactionService.core.mediator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@link CqrsBus#executeAsync} work according to the configured {@link BusExecutionMode}.
+ */
+@Component
+@Slf4j
+public class BusExecutor implements DisposableBean {
+
+    private final BusExecutionMode mode;
+    private final ExecutorService executorService;
+
+    public BusExecutor(BusExecutionProperties properties) {
+        this.mode = properties.getMode();
+        this.executorService = switch (mode) {
+            case CALLER -> null;
+            case PLATFORM -> newPlatformPool(properties.getPoolSize(), properties.getQueueCapacity());
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bus-vt-", 0).factory());
+        };
+        log.info("Bus async execution mode: {}", mode);
+    }
+
+    public <R> CompletableFuture<R> submit(Supplier<R> task) {
+        if (executorService == null) {
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        try {
+            return CompletableFuture.supplyAsync(task, executorService);
+        } catch (RuntimeException e) {
+            // RejectedExecutionException when the platform pool and its queue are saturated
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public BusExecutionMode getMode() {
+        return mode;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (executorService != null) {
+            executorService.shutdown();
+            if (!executorService.awaitTermination(30, TimeUnit.SECONDS)) {
+                executorService.shutdownNow();
+            }
+        }
+    }
+
+    private static ExecutorService newPlatformPool(int poolSize, int queueCapacity) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "bus-worker-" + threadIndex.getAndIncrement()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,57 @@
+package com.klb.transactionService.core.mediator;
+
+import com.klb.transactionService.core.abstractions.RequestData;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per request type permits, so an expensive command can be capped without holding back other requests. A request
+ * waits at most {@code bus.execution.permit-timeout} for a permit, so a burst of one type cannot park every caller
+ * thread.
+ */
+@Component
+public class ConcurrencyLimits {
+
+    private final Map<String, Integer> limits;
+    private final long permitTimeoutNanos;
+
+    private final ClassValue<Semaphore> permits = new ClassValue<>() {
+        @Override
+        protected Semaphore computeValue(Class<?> type) {
+            Integer limit = limits.get(type.getSimpleName());
+            return limit == null || limit <= 0 ? null : new Semaphore(limit, true);
+        }
+    };
+
+    public ConcurrencyLimits(BusExecutionProperties properties) {
+        this.limits = Map.copyOf(properties.getConcurrencyLimits());
+        this.permitTimeoutNanos = properties.getPermitTimeout().toNanos();
+    }
+
+    /**
+     * @return the permits guarding {@code requestType}, or {@code null} when the type is not limited
+     */
+    public Semaphore permitsFor(Class<? extends RequestData> requestType) {
+        return permits.get(requestType);
+    }
+
+    /**
+     * Takes one of {@code permits}, waiting at most the permit timeout.
+     *
+     * @throws RejectedExecutionException when the limit stays saturated, answered as SERVICE_BUSY
+     */
+    public void acquire(Semaphore permits, Class<? extends RequestData> requestType) {
+        try {
+            if (permits.tryAcquire(permitTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new RejectedExecutionException("Concurrency limit reached for " + requestType.getSimpleName());
+    }
+}
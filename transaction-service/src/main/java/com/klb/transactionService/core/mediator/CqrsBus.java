@@ -3,6 +3,10 @@ package com.klb.transactionService.core.mediator;
 import com.klb.transactionService.core.abstractions.RequestData;
 import com.klb.transactionService.core.abstractions.ResponseData;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface CqrsBus {
     <T extends RequestData, R extends ResponseData> R execute(T requestData);
+
+    <T extends RequestData, R extends ResponseData> CompletableFuture<R> executeAsync(T requestData);
 }
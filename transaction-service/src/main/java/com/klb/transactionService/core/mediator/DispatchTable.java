@@ -0,0 +1,57 @@
+package com.klb.transactionService.core.mediator;
+
+import com.klb.transactionService.core.abstractions.Handler;
+import com.klb.transactionService.core.abstractions.RequestData;
+import com.klb.transactionService.core.abstractions.ResponseData;
+
+import java.util.Map;
+
+/**
+ * Immutable request class -> handler table, frozen by {@link Registry} once all handlers are registered.
+ * Request classes are laid out in an open-addressed array keyed by their identity hash, so dispatch on the
+ * hot path is an array load and a reference comparison, with no {@code equals}, boxing or locking.
+ */
+public final class DispatchTable {
+
+    static final DispatchTable EMPTY = new DispatchTable(Map.of());
+
+    private final Class<?>[] requestTypes;
+    private final Handler<?, ?>[] handlers;
+    private final int mask;
+    private final int size;
+
+    DispatchTable(Map<Class<? extends RequestData>, Handler<?, ?>> registrations) {
+        // keep the load factor at or below 0.5 so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(1, registrations.size()) * 2 - 1) << 1;
+        this.requestTypes = new Class<?>[capacity];
+        this.handlers = new Handler<?, ?>[capacity];
+        this.mask = capacity - 1;
+        this.size = registrations.size();
+
+        registrations.forEach((requestType, handler) -> {
+            int slot = System.identityHashCode(requestType) & mask;
+            while (requestTypes[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            requestTypes[slot] = requestType;
+            handlers[slot] = handler;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends RequestData, R extends ResponseData> Handler<T, R> get(Class<T> requestClass) {
+        int slot = System.identityHashCode(requestClass) & mask;
+        Class<?> candidate;
+        while ((candidate = requestTypes[slot]) != null) {
+            if (candidate == requestClass) {
+                return (Handler<T, R>) handlers[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -20,6 +20,8 @@ public class Registry {
 
     private final Map<Class<? extends RequestData>, Handler<?, ?>> handlers = new ConcurrentHashMap<>();
 
+    private volatile DispatchTable dispatchTable = DispatchTable.EMPTY;
+
     @EventListener
     public void handleContextRefreshed(ContextRefreshedEvent event) {
         ApplicationContext context = event.getApplicationContext();
@@ -33,6 +35,7 @@ public class Registry {
         });
 
         handlerBeans.values().forEach(this::registerHandler);
+        freeze();
 
         log.info("Registration completed. Total handlers: {}", handlers.size());
         handlers.forEach((key, value) ->
@@ -90,7 +93,7 @@ public class Registry {
                                 if (requestType instanceof Class &&
                                         RequestData.class.isAssignableFrom((Class<?>) requestType)) {
                                     Class<? extends RequestData> requestClass = (Class<? extends RequestData>) requestType;
-                                    handlers.put(requestClass, handler);
+                                    register(requestClass, handler);
                                     log.info("Successfully registered handler for: {}", requestClass.getName());
                                     wasRegistered[0] = true;
                                 } else {
@@ -112,6 +115,21 @@ public class Registry {
         }
     }
 
+    void register(Class<? extends RequestData> requestClass, Handler<?, ?> handler) {
+        handlers.put(requestClass, handler);
+    }
+
+    /**
+     * Snapshot the registered handlers into an immutable {@link DispatchTable} used by the bus hot path.
+     */
+    void freeze() {
+        dispatchTable = new DispatchTable(handlers);
+    }
+
+    public DispatchTable getDispatchTable() {
+        return dispatchTable;
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends RequestData, R extends ResponseData> Handler<T, R> getHandler(Class<T> requestClass) {
         return (Handler<T, R>) handlers.get(requestClass);
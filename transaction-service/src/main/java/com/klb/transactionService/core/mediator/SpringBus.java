@@ -5,37 +5,95 @@ import com.klb.transactionService.core.abstractions.RequestData;
 import com.klb.transactionService.core.abstractions.ResponseData;
 import com.klb.transactionService.core.exceptions.HandlerExecutionException;
 import com.klb.transactionService.core.exceptions.HandlerNotFoundException;
+import com.klb.transactionService.core.pipeline.PipelineBehavior;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
 @Component
 @Slf4j
 public class SpringBus implements CqrsBus {
 
     private final Registry registry;
+    private final PipelineBehavior[] behaviors;
+    private final BusExecutor busExecutor;
+    private final ConcurrencyLimits concurrencyLimits;
 
-    public SpringBus(Registry registry) {
+    public SpringBus(Registry registry, List<PipelineBehavior> behaviors,
+                     BusExecutor busExecutor, ConcurrencyLimits concurrencyLimits) {
         this.registry = registry;
+        // Spring injects the list already sorted by @Order
+        this.behaviors = behaviors.toArray(PipelineBehavior[]::new);
+        this.busExecutor = busExecutor;
+        this.concurrencyLimits = concurrencyLimits;
     }
 
-
     @Override
     public <T extends RequestData, R extends ResponseData> R execute(T requestData) {
         // Lấy class type và ép kiểu một cách an toàn
         @SuppressWarnings("unchecked")
         Class<T> requestClass = (Class<T>) requestData.getClass();
 
+        Handler<T, R> handler = resolveHandler(requestClass);
+        Semaphore permits = concurrencyLimits.permitsFor(requestClass);
+        if (permits != null) {
+            concurrencyLimits.acquire(permits, requestClass);
+        }
+        try {
+            return run(requestData, requestClass, handler);
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    @Override
+    public <T extends RequestData, R extends ResponseData> CompletableFuture<R> executeAsync(T requestData) {
+        @SuppressWarnings("unchecked")
+        Class<T> requestClass = (Class<T>) requestData.getClass();
+
+        Handler<T, R> handler;
+        try {
+            handler = resolveHandler(requestClass);
+        } catch (HandlerNotFoundException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        // the permit is taken on the calling thread, so a bus worker never waits on a limited request type; the
+        // wait is short, and a saturated limit fails the future instead of parking the caller
+        Semaphore permits = concurrencyLimits.permitsFor(requestClass);
+        if (permits == null) {
+            return busExecutor.submit(() -> run(requestData, requestClass, handler));
+        }
+        try {
+            concurrencyLimits.acquire(permits, requestClass);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return busExecutor.<R>submit(() -> run(requestData, requestClass, handler))
+                .whenComplete((response, failure) -> permits.release());
+    }
+
+    private <T extends RequestData, R extends ResponseData> Handler<T, R> resolveHandler(Class<T> requestClass) {
         log.debug("Executing: {}", requestClass.getSimpleName());
 
-        Handler<T, R> handler = registry.getHandler(requestClass);
+        Handler<T, R> handler = registry.getDispatchTable().get(requestClass);
 
         if (handler == null) {
             log.error("No handler found for: {}", requestClass.getSimpleName());
             throw new HandlerNotFoundException("No handler registered for: " + requestClass.getSimpleName());
         }
+        return handler;
+    }
 
+    private <T extends RequestData, R extends ResponseData> R run(T requestData, Class<T> requestClass, Handler<T, R> handler) {
         try {
-            R response = handler.handle(requestData);
+            R response = invokePipeline(requestData, handler, 0);
             log.debug("Executed successfully: {}", requestClass.getSimpleName());
             return response;
 
@@ -44,4 +102,11 @@ public class SpringBus implements CqrsBus {
             throw new HandlerExecutionException("Error executing " + requestClass.getSimpleName(), e);
         }
     }
+
+    private <T extends RequestData, R extends ResponseData> R invokePipeline(T requestData, Handler<T, R> handler, int index) {
+        if (index == behaviors.length) {
+            return handler.handle(requestData);
+        }
+        return behaviors[index].handle(requestData, () -> invokePipeline(requestData, handler, index + 1));
+    }
 }
@@ -0,0 +1,60 @@
+package com.klb.transactionService.core.pipeline;
+
+import com.klb.transactionService.core.abstractions.RequestData;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per {@link RequestData} type latency histograms and failure counters, fed by {@link TimingBehavior}.
+ */
+@Component
+public class BusMetrics {
+
+    private final Map<Class<?>, Entry> entries = new ConcurrentHashMap<>();
+
+    public void record(Class<? extends RequestData> requestType, long elapsedNanos, boolean failed) {
+        Entry entry = entries.get(requestType);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(requestType, type -> new Entry());
+        }
+        entry.latency.record(elapsedNanos);
+        if (failed) {
+            entry.failures.increment();
+        }
+    }
+
+    public List<LatencySnapshot> snapshot() {
+        return entries.entrySet().stream()
+                .map(e -> toSnapshot(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingLong(LatencySnapshot::getP99Micros).reversed())
+                .toList();
+    }
+
+    private LatencySnapshot toSnapshot(Class<?> requestType, Entry entry) {
+        LatencyHistogram latency = entry.latency;
+        return LatencySnapshot.builder()
+                .requestType(requestType.getSimpleName())
+                .count(latency.getTotalCount())
+                .failures(entry.failures.sum())
+                .p50Micros(toMicros(latency.getValueAtPercentile(50.0)))
+                .p99Micros(toMicros(latency.getValueAtPercentile(99.0)))
+                .p999Micros(toMicros(latency.getValueAtPercentile(99.9)))
+                .maxMicros(toMicros(latency.getMaxValue()))
+                .build();
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static final class Entry {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder failures = new LongAdder();
+    }
+}
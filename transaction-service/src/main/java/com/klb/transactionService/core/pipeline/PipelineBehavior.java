@@ -0,0 +1,12 @@
+package com.klb.transactionService.core.pipeline;
+
+import com.klb.transactionService.core.abstractions.RequestData;
+import com.klb.transactionService.core.abstractions.ResponseData;
+
+/**
+ * A step wrapped around every {@code Handler.handle} call dispatched by the bus (timing, validation, retry,
+ * transaction boundary...). Behaviors are Spring beans, applied outermost first in {@code @Order} order.
+ */
+public interface PipelineBehavior {
+    <T extends RequestData, R extends ResponseData> R handle(T requestData, RequestHandlerDelegate<R> next);
+}
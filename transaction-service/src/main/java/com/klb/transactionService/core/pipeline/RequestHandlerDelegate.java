@@ -0,0 +1,11 @@
+package com.klb.transactionService.core.pipeline;
+
+import com.klb.transactionService.core.abstractions.ResponseData;
+
+/**
+ * Continuation to the next behavior in the pipeline, or to the handler itself for the innermost behavior.
+ */
+@FunctionalInterface
+public interface RequestHandlerDelegate<R extends ResponseData> {
+    R invoke();
+}
@@ -0,0 +1,51 @@
+package com.klb.transactionService.core.pipeline;
+
+import com.klb.transactionService.core.abstractions.RequestData;
+import com.klb.transactionService.core.abstractions.ResponseData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retries requests that fail with a transient data access error (deadlock, lock timeout, optimistic lock).
+ * Sits outside {@link TransactionBehavior} so every attempt runs in a fresh transaction.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 200)
+@Slf4j
+public class RetryBehavior implements PipelineBehavior {
+
+    @Value("${bus.pipeline.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${bus.pipeline.retry.backoff-millis:20}")
+    private long backoffMillis;
+
+    @Override
+    public <T extends RequestData, R extends ResponseData> R handle(T requestData, RequestHandlerDelegate<R> next) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return next.invoke();
+            } catch (TransientDataAccessException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.warn("Transient failure executing {} (attempt {}/{}): {}",
+                        requestData.getClass().getSimpleName(), attempt, maxAttempts, e.getMessage());
+                backoff(attempt++);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(backoffMillis * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.klb.transactionService.core.pipeline;
+
+import com.klb.transactionService.core.abstractions.RequestData;
+import com.klb.transactionService.core.abstractions.ResponseData;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Outermost behavior: measures the full pipeline (including retries and the transaction) per request type.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class TimingBehavior implements PipelineBehavior {
+
+    private final BusMetrics busMetrics;
+
+    @Override
+    public <T extends RequestData, R extends ResponseData> R handle(T requestData, RequestHandlerDelegate<R> next) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            R response = next.invoke();
+            failed = false;
+            return response;
+        } finally {
+            busMetrics.record(requestData.getClass(), System.nanoTime() - start, failed);
+        }
+    }
+}
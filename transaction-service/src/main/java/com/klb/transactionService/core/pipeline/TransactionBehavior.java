@@ -0,0 +1,35 @@
+package com.klb.transactionService.core.pipeline;
+
+import com.klb.transactionService.core.abstractions.NonTransactionalRequest;
+import com.klb.transactionService.core.abstractions.QueryData;
+import com.klb.transactionService.core.abstractions.RequestData;
+import com.klb.transactionService.core.abstractions.ResponseData;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Transaction boundary around command handlers. {@link QueryData} requests run without a bus-level
+ * transaction: a cache hit must not check out a connection, and repository reads are already
+ * read-only transactional on their own. {@link NonTransactionalRequest} commands are skipped as well.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 300)
+public class TransactionBehavior implements PipelineBehavior {
+
+    private final TransactionTemplate readWrite;
+
+    public TransactionBehavior(PlatformTransactionManager transactionManager) {
+        this.readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public <T extends RequestData, R extends ResponseData> R handle(T requestData, RequestHandlerDelegate<R> next) {
+        if (requestData instanceof QueryData || requestData instanceof NonTransactionalRequest) {
+            return next.invoke();
+        }
+        return readWrite.execute(status -> next.invoke());
+    }
+}
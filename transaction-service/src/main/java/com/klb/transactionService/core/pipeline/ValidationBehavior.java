@@ -0,0 +1,39 @@
+package com.klb.transactionService.core.pipeline;
+
+import com.klb.transactionService.core.abstractions.RequestData;
+import com.klb.transactionService.core.abstractions.ResponseData;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Validates bean-validation constraints declared on the request before it reaches retry/transaction/handler.
+ * A no-op when no {@link Validator} is available (no bean-validation provider on the classpath).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class ValidationBehavior implements PipelineBehavior {
+
+    private final Validator validator;
+
+    public ValidationBehavior(ObjectProvider<Validator> validator) {
+        this.validator = validator.getIfAvailable();
+    }
+
+    @Override
+    public <T extends RequestData, R extends ResponseData> R handle(T requestData, RequestHandlerDelegate<R> next) {
+        if (validator != null) {
+            Set<ConstraintViolation<T>> violations = validator.validate(requestData);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+        }
+        return next.invoke();
+    }
+}
@@ -0,0 +1,25 @@
+package com.klb.transactionService.domain.entities;
+
+import com.klb.transactionService.domain.enums.MovementType;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+
+/**
+ * One immutable line of the card balance journal. The balance of a card is its last snapshot
+ * plus the sum of every movement recorded after it.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BalanceMovement {
+    Long movementId;          // gán bởi DB, tăng dần theo thứ tự ghi
+
+    String cardId;
+    MovementType type;
+    long amountMinor;         // minor units, âm khi debit
+    Date createdAt;
+}
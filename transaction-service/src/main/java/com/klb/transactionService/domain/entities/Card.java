@@ -12,7 +12,7 @@ import java.util.Date;
 import java.util.UUID;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -46,4 +46,13 @@ public class Card {
         if (amount.signum() <= 0) return;
         this.availableBalance = this.availableBalance.add(amount);
     }
+
+    /**
+     * Debits only when the card is not blocked and the available balance covers {@code amount}.
+     */
+    public boolean tryDebit(BigDecimal amount) {
+        if (cardStatus == CardStatus.BLOCKED || availableBalance.compareTo(amount) < 0) return false;
+        debit(amount);
+        return true;
+    }
 }
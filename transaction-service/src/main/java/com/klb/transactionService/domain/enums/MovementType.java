@@ -0,0 +1,5 @@
+package com.klb.transactionService.domain.enums;
+
+public enum MovementType {
+    OPENING, DEBIT, CREDIT
+}
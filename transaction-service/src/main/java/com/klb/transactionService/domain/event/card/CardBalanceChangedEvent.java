@@ -0,0 +1,22 @@
+package com.klb.transactionService.domain.event.card;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class CardBalanceChangedEvent extends ApplicationEvent {
+    private final String cardId;
+    // mang sẵn các key của read cache để listener xóa trực tiếp, không phải tra lại thẻ
+    private final String accountId;
+    private final String cardNumber;
+    // số tiền thay đổi theo minor units (MinorUnits.SCALE): âm khi debit, dương khi credit
+    private final long deltaMinor;
+
+    public CardBalanceChangedEvent(Object source, String cardId, String accountId, String cardNumber, long deltaMinor) {
+        super(source);
+        this.cardId = cardId;
+        this.accountId = accountId;
+        this.cardNumber = cardNumber;
+        this.deltaMinor = deltaMinor;
+    }
+}
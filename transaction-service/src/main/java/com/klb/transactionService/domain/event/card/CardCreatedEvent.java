@@ -1,15 +1,22 @@
 package com.klb.transactionService.domain.event.card;
 
+import com.klb.transactionService.domain.entities.Card;
+import lombok.Getter;
 import org.springframework.context.ApplicationEvent;
 
 import java.time.Clock;
 
+@Getter
 public class CardCreatedEvent extends ApplicationEvent {
-    public CardCreatedEvent(Object source) {
+    private final Card card;
+
+    public CardCreatedEvent(Object source, Card card) {
         super(source);
+        this.card = card;
     }
 
-    public CardCreatedEvent(Object source, Clock clock) {
+    public CardCreatedEvent(Object source, Card card, Clock clock) {
         super(source, clock);
+        this.card = card;
     }
 }
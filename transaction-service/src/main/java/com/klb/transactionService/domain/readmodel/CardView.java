@@ -0,0 +1,28 @@
+package com.klb.transactionService.domain.readmodel;
+
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.enums.CardType;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Immutable, denormalized read model of a card. Produced directly by projection queries
+ * (no managed entity, no domain mapping) and safe to share from the read cache. Never carries the CVV.
+ */
+@Value
+@AllArgsConstructor
+public class CardView {
+    String cardId;
+    String accountId;
+    String cardNumber;
+    String cardHolderName;
+    CardType cardType;
+    CardStatus cardStatus;
+    Date issuanceAt;
+    Date expiryDate;
+    BigDecimal availableBalance;
+    BigDecimal creditLimit;
+}
@@ -0,0 +1,51 @@
+package com.klb.transactionService.domain.repositories;
+
+import com.klb.transactionService.domain.entities.BalanceMovement;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Append-only journal of card balance movements with per-card snapshots.
+ */
+public interface BalanceJournalRepository {
+
+    /**
+     * Inserts movements in JDBC batches; rows are never updated afterwards.
+     */
+    void appendAll(List<BalanceMovement> movements);
+
+    /**
+     * Balance rebuilt from the card's last snapshot plus the journal tail, in minor units.
+     */
+    long rebuildBalance(String cardId);
+
+    /**
+     * One page of movements in journal order, starting after {@code afterMovementId} (null for the first page).
+     */
+    List<BalanceMovement> findMovements(String cardId, Long afterMovementId, int limit);
+
+    /**
+     * Highest movement id in the journal, 0 when it is empty.
+     */
+    long lastMovementId();
+
+    /**
+     * Cards with a movement in {@code (afterMovementId, upToMovementId]} whose journal tail since the last
+     * snapshot holds at least {@code minTailLength} movements.
+     */
+    List<String> findCardsToSnapshot(long afterMovementId, long upToMovementId, int minTailLength);
+
+    /**
+     * Folds every committed movement of the card into its snapshot, waiting for balance writes of the card
+     * that are still in flight.
+     *
+     * @return the id of the last movement covered by the snapshot, 0 when the card has none
+     */
+    long snapshot(String cardId);
+
+    /**
+     * Deletes movements already covered by the card's snapshot and created before {@code olderThan}.
+     */
+    int purgeCompacted(String cardId, Date olderThan);
+}
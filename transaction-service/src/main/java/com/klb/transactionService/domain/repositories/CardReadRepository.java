@@ -0,0 +1,26 @@
+package com.klb.transactionService.domain.repositories;
+
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.readmodel.CardView;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface CardReadRepository {
+
+    Optional<CardView> findByCardNumber(String cardNumber);
+
+    List<CardView> findByAccountId(String accountId);
+
+    /**
+     * One page of cards in {@code card_id} order, starting after {@code afterCardId} (null for the first page).
+     */
+    List<CardView> findByCardStatus(CardStatus status, String afterCardId, int limit);
+
+    /**
+     * Every card with {@code status}, read with a bounded fetch size. Must run inside a transaction;
+     * {@code action} is invoked once per row and nothing is accumulated in memory.
+     */
+    void forEachByCardStatus(CardStatus status, Consumer<CardView> action);
+}
@@ -10,13 +10,50 @@ public interface CardRepository {
 
     Card save(Card card);
 
+    /**
+     * Inserts new cards in JDBC batches; every card must already carry its cardId.
+     */
+    void saveAll(List<Card> cards);
+
+    Optional<Card> findById(String cardId);
+
     List<Card> findByAccountId(String accountId);
 
     Optional<Card> findByCardNumber(String cardNumber);
 
-    List<Card> findByCardStatus(CardStatus status);
+    /**
+     * One page of cards in {@code card_id} order, starting after {@code afterCardId} (null for the first page).
+     */
+    List<Card> findByCardStatus(CardStatus status, String afterCardId, int limit);
 
     List<Card> findByAccountIdAndStatus(String accountId, CardStatus status);
 
+    /**
+     * Cheap pre-check: may answer false for a number saved moments ago on another instance, so it must only be
+     * used where the {@code card_number} unique key backs it up.
+     */
     boolean existsByCardNumber(String cardNumber);
+
+    /**
+     * Atomically subtracts {@code amountMinor} from the available balance if the card is not blocked and the
+     * balance covers it; concurrent debits can neither lose updates nor overdraw the card.
+     *
+     * @return false when the card is missing, blocked or has insufficient funds
+     */
+    boolean debitIfSufficient(String cardId, long amountMinor);
+
+    /**
+     * Atomically adds {@code amountMinor} to the available balance.
+     *
+     * @return false when the card is missing
+     */
+    boolean credit(String cardId, long amountMinor);
+
+    /**
+     * Sets the available balance to {@code newMinor} only if it still equals {@code expectedMinor} and the card
+     * is not blocked.
+     *
+     * @return false when the card is missing, blocked or its balance was changed by another writer
+     */
+    boolean compareAndSetBalance(String cardId, long expectedMinor, long newMinor);
 }
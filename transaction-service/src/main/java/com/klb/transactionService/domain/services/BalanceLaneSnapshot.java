@@ -0,0 +1,18 @@
+package com.klb.transactionService.domain.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceLaneSnapshot {
+    private int lane;
+    private int queueDepth;
+    private int largestBatch;
+    private long operations;
+    private long writes;
+}
@@ -0,0 +1,18 @@
+package com.klb.transactionService.domain.services;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Serializes balance changes per card: every card is owned by exactly one lane, and each lane applies the
+ * operations queued for a card as one balance write. Futures complete with false when a debit is declined
+ * or the card does not exist.
+ */
+public interface BalanceLanes {
+
+    CompletableFuture<Boolean> debit(String cardId, long amountMinor);
+
+    CompletableFuture<Boolean> credit(String cardId, long amountMinor);
+
+    List<BalanceLaneSnapshot> snapshot();
+}
@@ -0,0 +1,14 @@
+package com.klb.transactionService.domain.services;
+
+import java.util.List;
+
+/**
+ * Hands out card numbers (PAN) that are unique across every transaction-service instance,
+ * so callers never need to check the card table for collisions.
+ */
+public interface CardNumberAllocator {
+
+    String next();
+
+    List<String> next(int count);
+}
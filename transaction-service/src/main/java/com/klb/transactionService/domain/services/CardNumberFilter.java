@@ -0,0 +1,21 @@
+package com.klb.transactionService.domain.services;
+
+/**
+ * Approximate membership over issued card numbers. A positive answer may be wrong and must be confirmed. A
+ * negative answer is definite only for numbers saved by this instance or already caught up from the database;
+ * a card just created on another instance can be missed until the next catch-up, so only callers for which
+ * such a miss is harmless may skip the database on a negative.
+ */
+public interface CardNumberFilter {
+
+    boolean mightContain(String cardNumber);
+
+    void add(String cardNumber);
+
+    /**
+     * Whether the filter has loaded the issued numbers; until then {@link #mightContain} answers {@code true}.
+     */
+    default boolean isReady() {
+        return true;
+    }
+}
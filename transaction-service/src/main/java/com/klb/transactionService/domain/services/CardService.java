@@ -1,4 +1,14 @@
 package com.klb.transactionService.domain.services;
 
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.readmodel.CardView;
+
+import java.util.function.Consumer;
+
 public interface CardService {
+
+    /**
+     * Streams every card with {@code status} to {@code action} in constant memory.
+     */
+    void exportByStatus(CardStatus status, Consumer<CardView> action);
 }
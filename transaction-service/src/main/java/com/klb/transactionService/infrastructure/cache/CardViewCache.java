@@ -0,0 +1,105 @@
+package com.klb.transactionService.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.domain.event.card.CardBalanceChangedEvent;
+import com.klb.transactionService.domain.event.card.CardCreatedEvent;
+import com.klb.transactionService.domain.readmodel.CardView;
+import com.klb.transactionService.infrastructure.persistence.writebehind.CardWriteBehind;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded read-side cache for card lookups. Entries are invalidated after the writing transaction commits.
+ * Misses load through {@link Cache#get}, which holds the key while loading: an invalidation racing with a load
+ * waits for it and then removes what it loaded, so a reader that read pre-commit data cannot put it back after
+ * the eviction.
+ * <p>
+ * With write-behind the row reaches the database only after the eviction, so a miss that finds the account or
+ * card still pending in {@link CardWriteBehind} returns what it read without caching it. The check runs after the
+ * read, inside the load: a save that became pending later commits, and evicts, after this load.
+ */
+@Component
+public class CardViewCache {
+
+    private final Cache<String, CardView> byCardNumber;
+    private final Cache<String, List<CardView>> byAccountId;
+    private final CardWriteBehind writeBehind;
+
+    @Autowired
+    public CardViewCache(@Value("${card.read-cache.max-size:100000}") long maxSize,
+                         @Value("${card.read-cache.expire-after-write:10m}") Duration expireAfterWrite,
+                         ObjectProvider<CardWriteBehind> writeBehind) {
+        this(maxSize, expireAfterWrite, writeBehind.getIfAvailable());
+    }
+
+    CardViewCache(long maxSize, Duration expireAfterWrite, CardWriteBehind writeBehind) {
+        this.writeBehind = writeBehind;
+        this.byCardNumber = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        this.byAccountId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public Optional<CardView> getByCardNumber(String cardNumber, Function<String, Optional<CardView>> loader) {
+        // loader trả null khi không có thẻ: Caffeine không cache kết quả rỗng, thẻ có thể được tạo ngay sau đó
+        return Optional.ofNullable(loadThrough(byCardNumber, cardNumber, key -> loader.apply(key).orElse(null),
+                card -> cardNumber.equals(card.getCardNumber())));
+    }
+
+    public List<CardView> getByAccountId(String accountId, Function<String, List<CardView>> loader) {
+        return loadThrough(byAccountId, accountId, key -> List.copyOf(loader.apply(key)),
+                card -> accountId.equals(card.getAccountId()));
+    }
+
+    private <V> V loadThrough(Cache<String, V> cache, String key, Function<String, V> loader, Predicate<Card> pending) {
+        if (writeBehind == null) {
+            return cache.get(key, loader);
+        }
+        List<V> uncached = new ArrayList<>(1);
+        V cached = cache.get(key, k -> {
+            V loaded = loader.apply(k);
+            if (loaded != null && writeBehind.hasPending(pending)) {
+                uncached.add(loaded);
+                return null;
+            }
+            return loaded;
+        });
+        return uncached.isEmpty() ? cached : uncached.get(0);
+    }
+
+    public void evict(String accountId, String cardNumber) {
+        if (accountId != null) {
+            byAccountId.invalidate(accountId);
+        }
+        if (cardNumber != null) {
+            byCardNumber.invalidate(cardNumber);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCardCreated(CardCreatedEvent event) {
+        evict(event.getCard().getAccountId(), event.getCard().getCardNumber());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBalanceChanged(CardBalanceChangedEvent event) {
+        evict(event.getAccountId(), event.getCardNumber());
+    }
+}
@@ -0,0 +1,31 @@
+package com.klb.transactionService.infrastructure.messaging;
+
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.enums.CardType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Kafka payload for card events. Card number and CVV are deliberately left out.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardEventMessage {
+    private String eventType;
+    private String cardId;
+    private String accountId;
+    private CardType cardType;
+    private CardStatus cardStatus;
+    private BigDecimal availableBalance;
+    private BigDecimal creditLimit;
+    // CARD_BALANCE_CHANGED: net change of the available balance, negative for debits
+    private BigDecimal balanceDelta;
+    private Date occurredAt;
+}
@@ -0,0 +1,148 @@
+package com.klb.transactionService.infrastructure.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains {@code card_outbox} to Kafka. Each poll claims a batch of unsent rows ({@code FOR UPDATE SKIP LOCKED},
+ * so several instances can relay side by side), sends them grouped by partition key so the producer fills
+ * its per-partition batches, waits for the acknowledgements and marks the acknowledged rows as sent with
+ * one UPDATE. Rows whose send failed stay unsent and are retried on the next poll: delivery is at least once,
+ * and a retried row can land after later events of the same account. Consumers order a card's events by the
+ * {@code outboxId} header.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String CLAIM_SQL = "SELECT id, partition_key, event_type, topic, payload FROM card_outbox "
+            + "WHERE sent_at IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String MARK_SENT_SQL = "UPDATE card_outbox SET sent_at = ? WHERE id IN (%s)";
+
+    private static final String PURGE_SQL = "DELETE FROM card_outbox WHERE sent_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration retention;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       @Qualifier("outboxKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${card.outbox.batch-size:500}") int batchSize,
+                       @Value("${card.outbox.send-timeout:10s}") Duration sendTimeout,
+                       @Value("${card.outbox.retention:1d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${card.outbox.poll-interval:PT0.2S}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${card.outbox.purge-interval:PT1H}")
+    public void purgeSent() {
+        int purged = jdbcTemplate.update(PURGE_SQL, new Timestamp(System.currentTimeMillis() - retention.toMillis()));
+        if (purged > 0) {
+            log.info("Purged {} relayed outbox rows", purged);
+        }
+    }
+
+    /**
+     * @return number of rows marked as sent
+     */
+    int relayBatch() {
+        Integer relayed = transaction.execute(status -> {
+            List<OutboxRow> rows = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new OutboxRow(
+                    rs.getLong("id"),
+                    rs.getString("partition_key"),
+                    rs.getString("event_type"),
+                    rs.getString("topic"),
+                    rs.getString("payload")), batchSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            List<Long> sentIds = send(rows);
+            if (!sentIds.isEmpty()) {
+                String placeholders = String.join(",", Collections.nCopies(sentIds.size(), "?"));
+                List<Object> args = new ArrayList<>(sentIds.size() + 1);
+                args.add(new Timestamp(System.currentTimeMillis()));
+                args.addAll(sentIds);
+                jdbcTemplate.update(MARK_SENT_SQL.formatted(placeholders), args.toArray());
+            }
+            if (sentIds.size() < rows.size()) {
+                log.warn("Relayed {} of {} outbox rows, the rest will be retried", sentIds.size(), rows.size());
+            }
+            return sentIds.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    private List<Long> send(List<OutboxRow> rows) {
+        // cùng partition key -> cùng partition: gửi liền nhau để producer gom vào cùng một batch
+        Map<String, List<OutboxRow>> byKey = new LinkedHashMap<>();
+        for (OutboxRow row : rows) {
+            byKey.computeIfAbsent(row.partitionKey(), key -> new ArrayList<>()).add(row);
+        }
+
+        List<OutboxRow> ordered = new ArrayList<>(rows.size());
+        List<CompletableFuture<?>> acks = new ArrayList<>(rows.size());
+        byKey.values().forEach(group -> group.forEach(row -> {
+            ProducerRecord<String, String> record = new ProducerRecord<>(row.topic(), row.partitionKey(), row.payload());
+            record.headers().add("eventType", row.eventType().getBytes(StandardCharsets.UTF_8));
+            record.headers().add("outboxId", Long.toString(row.id()).getBytes(StandardCharsets.UTF_8));
+            ordered.add(row);
+            acks.add(kafkaTemplate.send(record));
+        }));
+        kafkaTemplate.flush();
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Long> sentIds = new ArrayList<>(rows.size());
+        for (int i = 0; i < acks.size(); i++) {
+            try {
+                acks.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sentIds.add(ordered.get(i).id());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.debug("Outbox row {} not acknowledged: {}", ordered.get(i).id(), e.getMessage());
+            }
+        }
+        return sentIds;
+    }
+
+    private record OutboxRow(long id, String partitionKey, String eventType, String topic, String payload) {
+    }
+}
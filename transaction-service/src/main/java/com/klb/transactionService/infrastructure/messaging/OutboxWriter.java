@@ -0,0 +1,127 @@
+package com.klb.transactionService.infrastructure.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.domain.event.card.CardBalanceChangedEvent;
+import com.klb.transactionService.domain.event.card.CardCreatedEvent;
+import com.klb.transactionService.shared.utils.MinorUnits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes card events to {@code card_outbox} inside the transaction that produced them. Events raised in one
+ * transaction are buffered and inserted as a single JDBC batch just before commit, so a batch of 10 000 new
+ * cards costs a few multi-row INSERTs rather than 10 000 round trips, and either all of them or none commit
+ * together with the cards. Balance changes are published by the balance lanes inside their write transaction,
+ * so their rows commit or roll back with the balance update and its journal lines.
+ */
+@Component
+public class OutboxWriter {
+
+    static final String CARD_CREATED = "CARD_CREATED";
+    static final String CARD_BALANCE_CHANGED = "CARD_BALANCE_CHANGED";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL = "INSERT INTO card_outbox "
+            + "(aggregate_id, partition_key, event_type, topic, payload, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                        @Value("${card.outbox.topic:card-events}") String topic) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.topic = topic;
+    }
+
+    @EventListener
+    public void onCardCreated(CardCreatedEvent event) {
+        Card card = event.getCard();
+        CardEventMessage message = CardEventMessage.builder()
+                .eventType(CARD_CREATED)
+                .cardId(card.getCardId())
+                .accountId(card.getAccountId())
+                .cardType(card.getCardType())
+                .cardStatus(card.getCardStatus())
+                .availableBalance(card.getAvailableBalance())
+                .creditLimit(card.getCreditLimit())
+                .occurredAt(new Date(event.getTimestamp()))
+                .build();
+        enqueue(new OutboxRecord(card.getCardId(), card.getAccountId(), CARD_CREATED, toJson(message)));
+    }
+
+    @EventListener
+    public void onBalanceChanged(CardBalanceChangedEvent event) {
+        CardEventMessage message = CardEventMessage.builder()
+                .eventType(CARD_BALANCE_CHANGED)
+                .cardId(event.getCardId())
+                .accountId(event.getAccountId())
+                .balanceDelta(MinorUnits.toDecimal(event.getDeltaMinor()))
+                .occurredAt(new Date(event.getTimestamp()))
+                .build();
+        enqueue(new OutboxRecord(event.getCardId(), event.getAccountId(), CARD_BALANCE_CHANGED, toJson(message)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void enqueue(OutboxRecord record) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(record));
+            return;
+        }
+
+        List<OutboxRecord> pending = (List<OutboxRecord>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<OutboxRecord> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(buffer);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+                }
+            });
+            pending = buffer;
+        }
+        pending.add(record);
+    }
+
+    private void insert(List<OutboxRecord> records) {
+        Timestamp createdAt = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, BATCH_SIZE, (ps, record) -> {
+            ps.setString(1, record.aggregateId());
+            ps.setString(2, record.partitionKey());
+            ps.setString(3, record.eventType());
+            ps.setString(4, topic);
+            ps.setString(5, record.payload());
+            ps.setTimestamp(6, createdAt);
+        });
+    }
+
+    private String toJson(CardEventMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize card event " + message.getCardId(), e);
+        }
+    }
+
+    private record OutboxRecord(String aggregateId, String partitionKey, String eventType, String payload) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.klb.transactionService.infrastructure.persistence.adapters;
+
+import com.klb.transactionService.domain.entities.BalanceMovement;
+import com.klb.transactionService.domain.enums.MovementType;
+import com.klb.transactionService.domain.repositories.BalanceJournalRepository;
+import com.klb.transactionService.shared.utils.CardIds;
+import com.klb.transactionService.shared.utils.MinorUnits;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * JDBC implementation of the balance journal. The journal is insert-only, so it goes through plain
+ * batched statements instead of the persistence context.
+ * <p>
+ * Every transaction that appends a movement has already updated (or inserted) the card row, so it holds the
+ * card's row lock until it commits. A snapshot takes that lock first; the movements it then reads are
+ * therefore all committed, and none with a lower id can still show up later.
+ */
+@Component
+public class BalanceJournalRepositoryAdapter implements BalanceJournalRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO card_balance_movement (card_id, movement_type, amount, created_at) "
+            + "VALUES (?, ?, ?, ?)";
+
+    private static final String LOCK_CARD_SQL = "SELECT card_id FROM card WHERE card_id = ? FOR UPDATE";
+
+    private static final String LOCK_SNAPSHOT_SQL = "SELECT balance, last_movement_id FROM card_balance_snapshot "
+            + "WHERE card_id = ? FOR UPDATE";
+
+    // snapshot và đuôi nhật ký đọc trong cùng một câu lệnh, nên cùng một read view
+    private static final String REBUILD_SQL = "SELECT COALESCE(SUM(amount), 0) FROM ("
+            + "SELECT balance AS amount FROM card_balance_snapshot WHERE card_id = ? "
+            + "UNION ALL "
+            + "SELECT m.amount FROM card_balance_movement m WHERE m.card_id = ? AND m.movement_id > "
+            + "COALESCE((SELECT s.last_movement_id FROM card_balance_snapshot s WHERE s.card_id = ?), 0)) t";
+
+    private static final String FOLD_SQL = "SELECT COALESCE(SUM(amount), 0) AS total, COALESCE(MAX(movement_id), 0) AS last_id "
+            + "FROM card_balance_movement WHERE card_id = ? AND movement_id > ?";
+
+    private static final String LAST_MOVEMENT_ID_SQL = "SELECT COALESCE(MAX(movement_id), 0) FROM card_balance_movement";
+
+    private static final String UPDATE_SNAPSHOT_SQL = "UPDATE card_balance_snapshot "
+            + "SET balance = ?, last_movement_id = ?, taken_at = ? WHERE card_id = ?";
+
+    private static final String INSERT_SNAPSHOT_SQL = "INSERT INTO card_balance_snapshot "
+            + "(card_id, balance, last_movement_id, taken_at) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_MOVEMENTS_SQL = "SELECT movement_id, card_id, movement_type, amount, created_at "
+            + "FROM card_balance_movement WHERE card_id = ? AND movement_id > ? ORDER BY movement_id LIMIT ?";
+
+    // chỉ quét khoảng id mới (khoá chính), sau đó đếm đuôi của từng thẻ trên idx_movement_card_id_id
+    private static final String CARDS_TO_SNAPSHOT_SQL = "SELECT c.card_id FROM ("
+            + "SELECT DISTINCT card_id FROM card_balance_movement WHERE movement_id > ? AND movement_id <= ?) c "
+            + "LEFT JOIN card_balance_snapshot s ON s.card_id = c.card_id "
+            + "WHERE (SELECT COUNT(*) FROM card_balance_movement m "
+            + "WHERE m.card_id = c.card_id AND m.movement_id > COALESCE(s.last_movement_id, 0)) >= ?";
+
+    private static final String PURGE_SQL = "DELETE FROM card_balance_movement WHERE card_id = ? AND created_at < ? "
+            + "AND movement_id <= (SELECT s.last_movement_id FROM card_balance_snapshot s WHERE s.card_id = ?)";
+
+    private static final RowMapper<BalanceMovement> MOVEMENT_ROW_MAPPER = (rs, rowNum) -> BalanceMovement.builder()
+            .movementId(rs.getLong("movement_id"))
+            .cardId(rs.getString("card_id"))
+            .type(MovementType.valueOf(rs.getString("movement_type")))
+            .amountMinor(MinorUnits.of(rs.getBigDecimal("amount")))
+            .createdAt(rs.getTimestamp("created_at"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BalanceJournalRepositoryAdapter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void appendAll(List<BalanceMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, movements, CardRepositoryAdapter.BATCH_SIZE, (ps, movement) -> {
+            ps.setString(1, movement.getCardId());
+            ps.setString(2, movement.getType().name());
+            ps.setBigDecimal(3, MinorUnits.toDecimal(movement.getAmountMinor()));
+            ps.setTimestamp(4, new Timestamp(movement.getCreatedAt().getTime()));
+        });
+    }
+
+    @Override
+    public long rebuildBalance(String cardId) {
+        return MinorUnits.of(jdbcTemplate.queryForObject(REBUILD_SQL, BigDecimal.class, cardId, cardId, cardId));
+    }
+
+    @Override
+    public List<BalanceMovement> findMovements(String cardId, Long afterMovementId, int limit) {
+        return jdbcTemplate.query(SELECT_MOVEMENTS_SQL, MOVEMENT_ROW_MAPPER,
+                cardId, afterMovementId == null ? 0L : afterMovementId, limit);
+    }
+
+    @Override
+    public long lastMovementId() {
+        return jdbcTemplate.queryForObject(LAST_MOVEMENT_ID_SQL, Long.class);
+    }
+
+    @Override
+    public List<String> findCardsToSnapshot(long afterMovementId, long upToMovementId, int minTailLength) {
+        return jdbcTemplate.queryForList(CARDS_TO_SNAPSHOT_SQL, String.class,
+                afterMovementId, upToMovementId, minTailLength);
+    }
+
+    @Override
+    @Transactional
+    public long snapshot(String cardId) {
+        // waits for in-flight balance writes of the card; both locks are taken before the first plain read,
+        // so the fold below sees every movement they committed
+        jdbcTemplate.queryForList(LOCK_CARD_SQL, CardIds.toBytes(cardId));
+        // serialises concurrent snapshotters of the same card so none folds from a stale base
+        Snapshot snapshot = findSnapshot(cardId);
+        Snapshot folded = jdbcTemplate.queryForObject(FOLD_SQL, (rs, rowNum) ->
+                        new Snapshot(MinorUnits.of(rs.getBigDecimal("total")), rs.getLong("last_id")),
+                cardId, snapshot.lastMovementId);
+        if (folded.lastMovementId == 0) {
+            return snapshot.lastMovementId;
+        }
+
+        BigDecimal balance = MinorUnits.toDecimal(snapshot.balanceMinor + folded.balanceMinor);
+        Timestamp takenAt = new Timestamp(System.currentTimeMillis());
+        if (jdbcTemplate.update(UPDATE_SNAPSHOT_SQL, balance, folded.lastMovementId, takenAt, cardId) == 0) {
+            jdbcTemplate.update(INSERT_SNAPSHOT_SQL, cardId, balance, folded.lastMovementId, takenAt);
+        }
+        return folded.lastMovementId;
+    }
+
+    @Override
+    @Transactional
+    public int purgeCompacted(String cardId, Date olderThan) {
+        return jdbcTemplate.update(PURGE_SQL, cardId, new Timestamp(olderThan.getTime()), cardId);
+    }
+
+    private Snapshot findSnapshot(String cardId) {
+        List<Snapshot> rows = jdbcTemplate.query(LOCK_SNAPSHOT_SQL, (rs, rowNum) ->
+                new Snapshot(MinorUnits.of(rs.getBigDecimal("balance")), rs.getLong("last_movement_id")), cardId);
+        return rows.isEmpty() ? Snapshot.NONE : rows.get(0);
+    }
+
+    private record Snapshot(long balanceMinor, long lastMovementId) {
+        static final Snapshot NONE = new Snapshot(0, 0);
+    }
+}
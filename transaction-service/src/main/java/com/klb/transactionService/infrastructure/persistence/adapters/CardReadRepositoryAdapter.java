@@ -0,0 +1,49 @@
+package com.klb.transactionService.infrastructure.persistence.adapters;
+
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.readmodel.CardView;
+import com.klb.transactionService.domain.repositories.CardReadRepository;
+import com.klb.transactionService.infrastructure.persistence.repositories.CardRepositoryImpl;
+import com.klb.transactionService.shared.utils.CardIds;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Adapter implementation for CardReadRepository backed by JPQL constructor projections
+ */
+@Component
+public class CardReadRepositoryAdapter implements CardReadRepository {
+
+    private final CardRepositoryImpl jpaCardRepository;
+
+    public CardReadRepositoryAdapter(CardRepositoryImpl jpaCardRepository) {
+        this.jpaCardRepository = jpaCardRepository;
+    }
+
+    @Override
+    public Optional<CardView> findByCardNumber(String cardNumber) {
+        return jpaCardRepository.findViewByCardNumber(cardNumber);
+    }
+
+    @Override
+    public List<CardView> findByAccountId(String accountId) {
+        return jpaCardRepository.findViewsByAccountId(accountId);
+    }
+
+    @Override
+    public List<CardView> findByCardStatus(CardStatus status, String afterCardId, int limit) {
+        return jpaCardRepository.findViewsByCardStatus(status, afterCardId == null ? CardIds.MIN : afterCardId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public void forEachByCardStatus(CardStatus status, Consumer<CardView> action) {
+        try (Stream<CardView> views = jpaCardRepository.streamViewsByCardStatus(status)) {
+            views.forEach(action);
+        }
+    }
+}
@@ -3,99 +3,178 @@ package com.klb.transactionService.infrastructure.persistence.adapters;
 import com.klb.transactionService.domain.entities.Card;
 import com.klb.transactionService.domain.enums.CardStatus;
 import com.klb.transactionService.domain.repositories.CardRepository;
+import com.klb.transactionService.domain.services.CardNumberFilter;
+import com.klb.transactionService.infrastructure.persistence.mappers.CardMapper;
 import com.klb.transactionService.infrastructure.persistence.repositories.CardRepositoryImpl;
+import com.klb.transactionService.infrastructure.persistence.writebehind.CardWriteBehind;
+import com.klb.transactionService.shared.utils.CardIds;
+import com.klb.transactionService.shared.utils.MinorUnits;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
- * Adapter implementation for CardRepository that bridges the domain layer with JPA persistence
+ * Adapter implementation for CardRepository that bridges the domain layer with JPA persistence.
+ * With {@code card.persistence.mode=write-behind}, saves go to {@link CardWriteBehind} instead and single-card
+ * lookups see pending cards; list queries read the database and trail pending saves by one flush interval.
+ * {@link #existsByCardNumber} skips the database when {@link CardNumberFilter} rules the number out; lookups that
+ * return a card always read the database, because the filter can miss a card just created on another instance.
  */
 @Component
 public class CardRepositoryAdapter implements CardRepository {
 
+    static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_CARD_SQL = "INSERT INTO card (card_id, account_id, card_number, card_holder_name, "
+            + "cvv_number, card_type, card_status, issuance_at, expiry_date, available_balance, credit_limit) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // một câu lệnh điều kiện: không đọc-sửa-ghi trong ứng dụng, không mất cập nhật khi chạy song song
+    private static final String DEBIT_SQL = "UPDATE card SET available_balance = available_balance - ? "
+            + "WHERE card_id = ? AND card_status <> 'BLOCKED' AND available_balance >= ?";
+
+    private static final String CREDIT_SQL = "UPDATE card SET available_balance = available_balance + ? WHERE card_id = ?";
+
+    private static final String CAS_BALANCE_SQL = "UPDATE card SET available_balance = ? "
+            + "WHERE card_id = ? AND available_balance = ? AND card_status <> 'BLOCKED'";
+
     private final CardRepositoryImpl jpaCardRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CardMapper cardMapper;
+    private final CardNumberFilter cardNumberFilter;
+    private final CardWriteBehind writeBehind;
 
-    public CardRepositoryAdapter(CardRepositoryImpl jpaCardRepository) {
+    @Autowired
+    public CardRepositoryAdapter(CardRepositoryImpl jpaCardRepository, JdbcTemplate jdbcTemplate, CardMapper cardMapper,
+                                 CardNumberFilter cardNumberFilter, ObjectProvider<CardWriteBehind> writeBehind) {
+        this(jpaCardRepository, jdbcTemplate, cardMapper, cardNumberFilter, writeBehind.getIfAvailable());
+    }
+
+    CardRepositoryAdapter(CardRepositoryImpl jpaCardRepository, JdbcTemplate jdbcTemplate, CardMapper cardMapper,
+                          CardNumberFilter cardNumberFilter, CardWriteBehind writeBehind) {
         this.jpaCardRepository = jpaCardRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cardMapper = cardMapper;
+        this.cardNumberFilter = cardNumberFilter;
+        this.writeBehind = writeBehind;
     }
 
     @Override
     public Card save(Card domainCard) {
-        com.klb.transactionService.infrastructure.persistence.entities.Card jpaCard = mapToJpaEntity(domainCard);
-        com.klb.transactionService.infrastructure.persistence.entities.Card savedCard = jpaCardRepository.save(jpaCard);
-        return mapToDomainEntity(savedCard);
+        boolean isNew = domainCard.getCardId() == null;
+        Card card = isNew ? domainCard.toBuilder().cardId(CardIds.next()).build() : domainCard;
+        cardNumberFilter.add(card.getCardNumber());
+        if (writeBehind != null) {
+            // the row is written by the flusher
+            writeBehind.write(List.of(card));
+            return card;
+        }
+        com.klb.transactionService.infrastructure.persistence.entities.Card entity = cardMapper.toEntity(card);
+        entity.setNewCard(isNew);
+        return cardMapper.toDomain(jpaCardRepository.save(entity));
+    }
+
+    @Override
+    public void saveAll(List<Card> cards) {
+        cards.forEach(card -> cardNumberFilter.add(card.getCardNumber()));
+        if (writeBehind != null) {
+            writeBehind.write(cards);
+            return;
+        }
+        // bypass the persistence context: plain batched INSERTs (rewritten to multi-row by the MySQL driver)
+        jdbcTemplate.batchUpdate(INSERT_CARD_SQL, cards, BATCH_SIZE, (ps, card) -> {
+            ps.setBytes(1, CardIds.toBytes(card.getCardId()));
+            ps.setString(2, card.getAccountId());
+            ps.setString(3, card.getCardNumber());
+            ps.setString(4, card.getCardHolderName());
+            ps.setString(5, card.getCvvNumber());
+            ps.setString(6, card.getCardType().name());
+            ps.setString(7, card.getCardStatus().name());
+            ps.setTimestamp(8, new Timestamp(card.getIssuanceAt().getTime()));
+            ps.setTimestamp(9, new Timestamp(card.getExpiryDate().getTime()));
+            ps.setBigDecimal(10, card.getAvailableBalance());
+            ps.setBigDecimal(11, card.getCreditLimit());
+        });
+    }
+
+    @Override
+    public Optional<Card> findById(String cardId) {
+        if (writeBehind != null) {
+            Optional<Card> pending = writeBehind.findPending(cardId);
+            if (pending.isPresent()) {
+                return pending;
+            }
+        }
+        return jpaCardRepository.findById(cardId).map(cardMapper::toDomain);
     }
 
     @Override
     public List<Card> findByAccountId(String accountId) {
-        return jpaCardRepository.findByAccountId(accountId).stream()
-                .map(this::mapToDomainEntity)
-                .collect(Collectors.toList());
+        return jpaCardRepository.findCardsByAccountId(accountId);
     }
 
     @Override
     public Optional<Card> findByCardNumber(String cardNumber) {
+        if (writeBehind != null) {
+            Optional<Card> pending = writeBehind.findPending(card -> cardNumber.equals(card.getCardNumber()));
+            if (pending.isPresent()) {
+                return pending;
+            }
+        }
         return jpaCardRepository.findByCardNumber(cardNumber)
-                .map(this::mapToDomainEntity);
+                .map(cardMapper::toDomain);
     }
 
     @Override
-    public List<Card> findByCardStatus(CardStatus status) {
-        return jpaCardRepository.findByCardStatus(status).stream()
-                .map(this::mapToDomainEntity)
-                .collect(Collectors.toList());
+    public List<Card> findByCardStatus(CardStatus status, String afterCardId, int limit) {
+        return jpaCardRepository.findCardPageByCardStatus(status, afterCardId == null ? CardIds.MIN : afterCardId,
+                PageRequest.of(0, limit));
     }
 
     @Override
     public List<Card> findByAccountIdAndStatus(String accountId, CardStatus status) {
-        return jpaCardRepository.findByAccountIdAndStatus(accountId, status).stream()
-                .map(this::mapToDomainEntity)
-                .collect(Collectors.toList());
+        return jpaCardRepository.findCardsByAccountIdAndStatus(accountId, status);
     }
 
     @Override
     public boolean existsByCardNumber(String cardNumber) {
-        return jpaCardRepository.existsByCardNumber(cardNumber);
+        if (writeBehind != null && writeBehind.findPending(card -> cardNumber.equals(card.getCardNumber())).isPresent()) {
+            return true;
+        }
+        return cardNumberFilter.mightContain(cardNumber) && jpaCardRepository.existsByCardNumber(cardNumber);
+    }
+
+    @Override
+    public boolean debitIfSufficient(String cardId, long amountMinor) {
+        flushIfPending(cardId);
+        BigDecimal amount = MinorUnits.toDecimal(amountMinor);
+        return jdbcTemplate.update(DEBIT_SQL, amount, CardIds.toBytes(cardId), amount) == 1;
     }
 
-    /**
-     * Maps a JPA entity to a domain entity
-     */
-    private Card mapToDomainEntity(com.klb.transactionService.infrastructure.persistence.entities.Card jpaCard) {
-        return Card.builder()
-                .cardId(jpaCard.getCardId())
-                .accountId(jpaCard.getAccountId())
-                .cardNumber(jpaCard.getCardNumber())
-                .cardHolderName(jpaCard.getCardHolderName())
-                .cvvNumber(jpaCard.getCvvNumber())
-                .cardType(jpaCard.getCardType())
-                .cardStatus(jpaCard.getCardStatus())
-                .issuanceAt(jpaCard.getIssuanceAt())
-                .expiryDate(jpaCard.getExpiryDate())
-                .availableBalance(jpaCard.getAvailableBalance())
-                .creditLimit(jpaCard.getCreditLimit())
-                .build();
+    @Override
+    public boolean credit(String cardId, long amountMinor) {
+        flushIfPending(cardId);
+        return jdbcTemplate.update(CREDIT_SQL, MinorUnits.toDecimal(amountMinor), CardIds.toBytes(cardId)) == 1;
+    }
+
+    @Override
+    public boolean compareAndSetBalance(String cardId, long expectedMinor, long newMinor) {
+        flushIfPending(cardId);
+        return jdbcTemplate.update(CAS_BALANCE_SQL,
+                MinorUnits.toDecimal(newMinor), CardIds.toBytes(cardId), MinorUnits.toDecimal(expectedMinor)) == 1;
     }
 
-    /**
-     * Maps a domain entity to a JPA entity
-     */
-    private com.klb.transactionService.infrastructure.persistence.entities.Card mapToJpaEntity(Card domainCard) {
-        return com.klb.transactionService.infrastructure.persistence.entities.Card.builder()
-                .cardId(domainCard.getCardId())
-                .accountId(domainCard.getAccountId())
-                .cardNumber(domainCard.getCardNumber())
-                .cardHolderName(domainCard.getCardHolderName())
-                .cvvNumber(domainCard.getCvvNumber())
-                .cardType(domainCard.getCardType())
-                .cardStatus(domainCard.getCardStatus())
-                .issuanceAt(domainCard.getIssuanceAt())
-                .expiryDate(domainCard.getExpiryDate())
-                .availableBalance(domainCard.getAvailableBalance())
-                .creditLimit(domainCard.getCreditLimit())
-                .build();
+    // balance statements update the row in place, so a card still waiting in write-behind is written first
+    private void flushIfPending(String cardId) {
+        if (writeBehind != null) {
+            writeBehind.flushIfPending(cardId);
+        }
     }
 }
@@ -2,10 +2,12 @@ package com.klb.transactionService.infrastructure.persistence.entities;
 
 import com.klb.transactionService.domain.enums.CardStatus;
 import com.klb.transactionService.domain.enums.CardType;
+import com.klb.transactionService.infrastructure.persistence.types.CardIdType;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -19,12 +21,12 @@ import java.util.Date;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
 @Table(name = "card")
-public class Card {
+public class Card implements Persistable<String> {
 
+    // assigned by the application (CardIds), time-ordered
     @Id
-    @GeneratedValue(generator = "uuid2")
-    @GenericGenerator(name = "uuid2", strategy = "uuid2")
-    @Column(name = "card_id", nullable = false, updatable = false, columnDefinition = "VARCHAR(36)")
+    @Type(CardIdType.class)
+    @Column(name = "card_id", nullable = false, updatable = false, columnDefinition = "BINARY(16)")
     String cardId;
 
     @Column(name = "account_id", nullable = false)
@@ -58,4 +60,26 @@ public class Card {
 
     @Column(name = "credit_limit", precision = 19, scale = 4, nullable = false)
     BigDecimal creditLimit;
+
+    // an assigned id hides whether the card is new; new cards are flagged so save() persists
+    // instead of merging (merge SELECTs the row first)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    boolean newCard;
+
+    @Override
+    public String getId() {
+        return cardId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newCard;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newCard = false;
+    }
 }
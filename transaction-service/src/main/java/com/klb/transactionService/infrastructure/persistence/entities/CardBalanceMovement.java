@@ -0,0 +1,40 @@
+package com.klb.transactionService.infrastructure.persistence.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Append-only balance journal. Rows are written with plain batched INSERTs and never updated.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "card_balance_movement",
+        indexes = @Index(name = "idx_movement_card_id_id", columnList = "card_id, movement_id"))
+public class CardBalanceMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "movement_id", nullable = false, updatable = false)
+    Long movementId;
+
+    @Column(name = "card_id", nullable = false, updatable = false, length = 36)
+    String cardId;
+
+    @Column(name = "movement_type", nullable = false, updatable = false, length = 16)
+    String movementType;
+
+    @Column(name = "amount", precision = 19, scale = 4, nullable = false, updatable = false)
+    BigDecimal amount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    Date createdAt;
+}
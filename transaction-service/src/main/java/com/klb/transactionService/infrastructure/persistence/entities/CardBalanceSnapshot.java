@@ -0,0 +1,38 @@
+package com.klb.transactionService.infrastructure.persistence.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Balance of a card folded from its journal up to and including {@code lastMovementId}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "card_balance_snapshot")
+public class CardBalanceSnapshot {
+
+    @Id
+    @Column(name = "card_id", nullable = false, updatable = false, length = 36)
+    String cardId;
+
+    @Column(name = "balance", precision = 19, scale = 4, nullable = false)
+    BigDecimal balance;
+
+    @Column(name = "last_movement_id", nullable = false)
+    long lastMovementId;
+
+    @Column(name = "taken_at", nullable = false)
+    Date takenAt;
+}
@@ -0,0 +1,30 @@
+package com.klb.transactionService.infrastructure.persistence.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * High-water mark of the account-number sequence reserved for one BIN.
+ * Instances reserve blocks of numbers by advancing {@code nextValue} under a row lock.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "card_number_sequence")
+public class CardNumberSequence {
+
+    @Id
+    @Column(name = "bin", nullable = false, updatable = false, length = 8)
+    String bin;
+
+    @Column(name = "next_value", nullable = false)
+    long nextValue;
+}
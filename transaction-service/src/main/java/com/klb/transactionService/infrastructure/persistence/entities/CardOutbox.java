@@ -0,0 +1,53 @@
+package com.klb.transactionService.infrastructure.persistence.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+
+/**
+ * Transactional outbox for card events. Rows are inserted in the same transaction as the card change
+ * and marked as sent by the relay once Kafka has acknowledged them. The row id travels as the {@code outboxId}
+ * header; a card's changes are written one at a time, so its ids increase in the order the changes committed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "card_outbox",
+        indexes = @Index(name = "idx_outbox_sent_at_id", columnList = "sent_at, id"))
+public class CardOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, updatable = false)
+    Long id;
+
+    @Column(name = "aggregate_id", nullable = false, updatable = false, length = 36)
+    String aggregateId;
+
+    // key của message Kafka: mọi sự kiện của cùng một account vào cùng partition. Thứ tự KHÔNG được đảm bảo
+    // (gửi lại sau lỗi, nhiều relay chạy song song); consumer sắp xếp theo header outboxId, tăng dần theo từng thẻ
+    @Column(name = "partition_key", nullable = false, updatable = false, length = 64)
+    String partitionKey;
+
+    @Column(name = "event_type", nullable = false, updatable = false, length = 64)
+    String eventType;
+
+    @Column(name = "topic", nullable = false, updatable = false, length = 128)
+    String topic;
+
+    @Lob
+    @Column(name = "payload", nullable = false, updatable = false, columnDefinition = "TEXT")
+    String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    Date createdAt;
+
+    @Column(name = "sent_at")
+    Date sentAt;
+}
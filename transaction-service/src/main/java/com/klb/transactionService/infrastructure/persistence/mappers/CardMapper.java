@@ -1,4 +1,22 @@
 package com.klb.transactionService.infrastructure.persistence.mappers;
 
+import com.klb.transactionService.domain.entities.Card;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Domain <-> JPA card mapping, generated at compile time as plain getter/builder calls (no reflection).
+ */
+@Mapper(componentModel = "spring")
 public interface CardMapper {
+
+    Card toDomain(com.klb.transactionService.infrastructure.persistence.entities.Card entity);
+
+    List<Card> toDomain(List<com.klb.transactionService.infrastructure.persistence.entities.Card> entities);
+
+    // newCard is decided by the adapter, not carried by the domain card
+    @Mapping(target = "newCard", ignore = true)
+    com.klb.transactionService.infrastructure.persistence.entities.Card toEntity(Card card);
 }
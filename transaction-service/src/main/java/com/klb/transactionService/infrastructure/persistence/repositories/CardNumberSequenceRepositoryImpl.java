@@ -0,0 +1,19 @@
+package com.klb.transactionService.infrastructure.persistence.repositories;
+
+import com.klb.transactionService.infrastructure.persistence.entities.CardNumberSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CardNumberSequenceRepositoryImpl extends JpaRepository<CardNumberSequence, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CardNumberSequence s WHERE s.bin = :bin")
+    Optional<CardNumberSequence> findForUpdate(@Param("bin") String bin);
+}
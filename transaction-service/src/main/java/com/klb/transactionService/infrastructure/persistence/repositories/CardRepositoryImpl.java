@@ -2,26 +2,69 @@ package com.klb.transactionService.infrastructure.persistence.repositories;
 
 import com.klb.transactionService.infrastructure.persistence.entities.Card;
 import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.readmodel.CardView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface CardRepositoryImpl extends JpaRepository<Card, String> {
 
-    List<Card> findByAccountId(String accountId);
-
     Optional<Card> findByCardNumber(String cardNumber);
 
-    List<Card> findByCardStatus(CardStatus status);
+    boolean existsByCardNumber(String cardNumber);
+
+    // ===== Domain projections: list queries build domain Cards directly, no managed entities or
+    // dirty-checking snapshots =====
+    String DOMAIN_CARD_SELECT = "SELECT new com.klb.transactionService.domain.entities.Card("
+            + "c.cardId, c.accountId, c.cardNumber, c.cardHolderName, c.cvvNumber, c.cardType, c.cardStatus, "
+            + "c.issuanceAt, c.expiryDate, c.availableBalance, c.creditLimit) FROM Card c ";
 
-    @Query("SELECT c FROM Card c WHERE c.accountId = :accountId AND c.cardStatus = :status")
-    List<Card> findByAccountIdAndStatus(@Param("accountId") String accountId,
-                                        @Param("status") CardStatus status);
+    @Query(DOMAIN_CARD_SELECT + "WHERE c.accountId = :accountId")
+    List<com.klb.transactionService.domain.entities.Card> findCardsByAccountId(@Param("accountId") String accountId);
 
-    boolean existsByCardNumber(String cardNumber);
+    // keyset pagination: seek past the last card_id of the previous page instead of OFFSET
+    @Query(DOMAIN_CARD_SELECT + "WHERE c.cardStatus = :status AND c.cardId > :afterCardId ORDER BY c.cardId")
+    List<com.klb.transactionService.domain.entities.Card> findCardPageByCardStatus(@Param("status") CardStatus status,
+                                                                                  @Param("afterCardId") String afterCardId,
+                                                                                  Pageable pageable);
+
+    @Query(DOMAIN_CARD_SELECT + "WHERE c.accountId = :accountId AND c.cardStatus = :status")
+    List<com.klb.transactionService.domain.entities.Card> findCardsByAccountIdAndStatus(@Param("accountId") String accountId,
+                                                                                       @Param("status") CardStatus status);
+
+    // ===== Read model projections: mapped straight into CardView, no managed entities =====
+    String CARD_VIEW_SELECT = "SELECT new com.klb.transactionService.domain.readmodel.CardView("
+            + "c.cardId, c.accountId, c.cardNumber, c.cardHolderName, c.cardType, c.cardStatus, "
+            + "c.issuanceAt, c.expiryDate, c.availableBalance, c.creditLimit) FROM Card c ";
+
+    @Query(CARD_VIEW_SELECT + "WHERE c.cardNumber = :cardNumber")
+    Optional<CardView> findViewByCardNumber(@Param("cardNumber") String cardNumber);
+
+    @Query(CARD_VIEW_SELECT + "WHERE c.accountId = :accountId")
+    List<CardView> findViewsByAccountId(@Param("accountId") String accountId);
+
+    @Query(CARD_VIEW_SELECT + "WHERE c.cardStatus = :status AND c.cardId > :afterCardId ORDER BY c.cardId")
+    List<CardView> findViewsByCardStatus(@Param("status") CardStatus status,
+                                         @Param("afterCardId") String afterCardId,
+                                         Pageable pageable);
+
+    // phải được gọi trong transaction và đóng Stream sau khi dùng
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(CARD_VIEW_SELECT + "WHERE c.cardStatus = :status ORDER BY c.cardId")
+    Stream<CardView> streamViewsByCardStatus(@Param("status") CardStatus status);
 }
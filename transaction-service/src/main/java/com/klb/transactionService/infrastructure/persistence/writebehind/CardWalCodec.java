@@ -0,0 +1,108 @@
+package com.klb.transactionService.infrastructure.persistence.writebehind;
+
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.enums.CardType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Compact binary form of a {@link Card} for the write-ahead log. Every field is nullable.
+ */
+final class CardWalCodec {
+
+    private CardWalCodec() {
+    }
+
+    static byte[] encode(Card card) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, card.getCardId());
+            writeString(out, card.getAccountId());
+            writeString(out, card.getCardNumber());
+            writeString(out, card.getCardHolderName());
+            writeString(out, card.getCvvNumber());
+            writeString(out, card.getCardType() == null ? null : card.getCardType().name());
+            writeString(out, card.getCardStatus() == null ? null : card.getCardStatus().name());
+            writeDate(out, card.getIssuanceAt());
+            writeDate(out, card.getExpiryDate());
+            writeString(out, card.getAvailableBalance() == null ? null : card.getAvailableBalance().toPlainString());
+            writeString(out, card.getCreditLimit() == null ? null : card.getCreditLimit().toPlainString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Card decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            Card.CardBuilder builder = Card.builder()
+                    .cardId(readString(in))
+                    .accountId(readString(in))
+                    .cardNumber(readString(in))
+                    .cardHolderName(readString(in))
+                    .cvvNumber(readString(in));
+            String cardType = readString(in);
+            String cardStatus = readString(in);
+            builder.cardType(cardType == null ? null : CardType.valueOf(cardType))
+                    .cardStatus(cardStatus == null ? null : CardStatus.valueOf(cardStatus))
+                    .issuanceAt(readDate(in))
+                    .expiryDate(readDate(in));
+            String availableBalance = readString(in);
+            String creditLimit = readString(in);
+            return builder
+                    .availableBalance(availableBalance == null ? null : new BigDecimal(availableBalance))
+                    .creditLimit(creditLimit == null ? null : new BigDecimal(creditLimit))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] encodeCardId(String cardId) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(cardId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static String decodeCardId(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return in.readUTF();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDate(DataOutputStream out, Date value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getTime());
+        }
+    }
+
+    private static Date readDate(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new Date(in.readLong()) : null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.klb.transactionService.infrastructure.persistence.writebehind;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Fixed-size, memory-mapped append log. A record is {@code [int length][int crc32c][byte type][payload]};
+ * a zero length marks the end of the log and is rewritten after every append, so records left over from
+ * before a {@link #reset()} are never replayed. Appends are forced to disk before they return.
+ * <p>
+ * Records hold full card rows, card number and CVV included, so the file is created readable by the owner only
+ * and {@link #reset()} overwrites every byte written since the previous reset with zeros rather than just the
+ * first end marker.
+ * <p>
+ * Not thread-safe: the owner serialises access.
+ */
+final class CardWriteAheadLog implements Closeable {
+
+    static final byte UPSERT = 1;
+    static final byte DISCARD = 2;
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + 1;
+    private static final byte[] ZEROS = new byte[64 * 1024];
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int position;
+    // bytes [0, dirty) may hold record data; the file's content is unknown until the first reset
+    private int dirty;
+
+    CardWriteAheadLog(Path path, int capacity) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (Files.notExists(path) && path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        this.capacity = capacity;
+        this.dirty = capacity;
+    }
+
+    record Entry(byte type, byte[] payload) {
+    }
+
+    /**
+     * Hands every intact record to {@code consumer} in append order and positions the log after the last one.
+     * Replay stops at the end marker or at the first torn record (bad length or checksum).
+     */
+    void replay(BiConsumer<Byte, byte[]> consumer) {
+        int offset = 0;
+        CRC32C crc = new CRC32C();
+        while (offset + HEADER_BYTES <= capacity) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > capacity) {
+                break;
+            }
+            int checksum = buffer.getInt(offset + Integer.BYTES);
+            byte type = buffer.get(offset + Integer.BYTES * 2);
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_BYTES, payload);
+
+            crc.reset();
+            crc.update(type);
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            consumer.accept(type, payload);
+            offset += HEADER_BYTES + length;
+        }
+        position = offset;
+    }
+
+    /**
+     * Appends all entries and forces them to disk.
+     *
+     * @return false, writing nothing, when the entries do not fit in the remaining space
+     */
+    boolean append(List<Entry> entries) {
+        int required = Integer.BYTES;
+        for (Entry entry : entries) {
+            required += HEADER_BYTES + entry.payload().length;
+        }
+        if (position + required > capacity) {
+            return false;
+        }
+
+        int start = position;
+        CRC32C crc = new CRC32C();
+        // the end marker goes first past the new records, then the records, so a torn append never
+        // exposes stale bytes from an earlier generation of the file
+        buffer.putInt(start + required - Integer.BYTES, 0);
+        for (Entry entry : entries) {
+            crc.reset();
+            crc.update(entry.type());
+            crc.update(entry.payload());
+            buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+            buffer.put(position + Integer.BYTES * 2, entry.type());
+            buffer.put(position + HEADER_BYTES, entry.payload());
+            buffer.putInt(position, entry.payload().length);
+            position += HEADER_BYTES + entry.payload().length;
+        }
+        dirty = Math.max(dirty, position + Integer.BYTES);
+        buffer.force(start, required);
+        return true;
+    }
+
+    /**
+     * Discards every record and wipes its bytes; called once all of them are safely in the database, and before
+     * compaction rewrites the live ones.
+     */
+    void reset() {
+        for (int offset = 0; offset < dirty; offset += ZEROS.length) {
+            buffer.put(offset, ZEROS, 0, Math.min(ZEROS.length, dirty - offset));
+        }
+        buffer.force(0, Math.max(dirty, Integer.BYTES));
+        position = 0;
+        dirty = Integer.BYTES;
+    }
+
+    int position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,422 @@
+package com.klb.transactionService.infrastructure.persistence.writebehind;
+
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.shared.utils.CardIds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind store for card rows, enabled with {@code card.persistence.mode=write-behind}.
+ * <p>
+ * A save is acknowledged once the card is in the memory-mapped write-ahead log and in the pending map.
+ * Inside a transaction the append happens in {@code beforeCommit}; if the commit then fails, the previous
+ * pending state is restored and logged again. A flusher thread periodically writes the latest state of every
+ * pending card with batched {@code INSERT ... ON DUPLICATE KEY UPDATE}, so repeated saves of one card
+ * between two flushes cost a single row write. The flusher writes in its own transaction; a card flushed from
+ * inside a caller's transaction is written on that transaction's connection and is skipped by the flusher until
+ * it completes. Either way a card leaves the pending map only after the transaction that wrote it commits. Once
+ * nothing is pending the log is reset; when it fills up it is compacted by rewriting only the pending cards. On
+ * startup the log is replayed into the database.
+ * <p>
+ * Replay presumes commit: a card logged in {@code beforeCommit} whose transaction then failed in a crash
+ * window is still written.
+ */
+@Component
+@ConditionalOnProperty(name = "card.persistence.mode", havingValue = "write-behind")
+@Slf4j
+public class CardWriteBehind implements InitializingBean, DisposableBean {
+
+    private static final String UPSERT_SQL = "INSERT INTO card (card_id, account_id, card_number, card_holder_name, "
+            + "cvv_number, card_type, card_status, issuance_at, expiry_date, available_balance, credit_limit) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "account_id = VALUES(account_id), card_number = VALUES(card_number), "
+            + "card_holder_name = VALUES(card_holder_name), cvv_number = VALUES(cvv_number), "
+            + "card_type = VALUES(card_type), card_status = VALUES(card_status), issuance_at = VALUES(issuance_at), "
+            + "expiry_date = VALUES(expiry_date), available_balance = VALUES(available_balance), "
+            + "credit_limit = VALUES(credit_limit)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTransaction;
+    private final Path walPath;
+    private final int walCapacity;
+    private final Duration flushInterval;
+    private final int flushBatchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // guarded by lock; insertion order is flush order
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    private CardWriteAheadLog wal;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private Thread flusher;
+
+    public CardWriteBehind(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${card.persistence.wal.path:data/card-wal.log}") Path walPath,
+                           @Value("${card.persistence.wal.size:64MB}") DataSize walSize,
+                           @Value("${card.persistence.flush-interval:50ms}") Duration flushInterval,
+                           @Value("${card.persistence.flush-batch-size:1000}") int flushBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.walPath = walPath;
+        this.walCapacity = Math.toIntExact(walSize.toBytes());
+        this.flushInterval = flushInterval;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        wal = new CardWriteAheadLog(walPath, walCapacity);
+        Map<String, Card> recovered = new LinkedHashMap<>();
+        wal.replay((type, payload) -> {
+            if (type == CardWriteAheadLog.UPSERT) {
+                Card card = CardWalCodec.decode(payload);
+                recovered.remove(card.getCardId());
+                recovered.put(card.getCardId(), card);
+            } else if (type == CardWriteAheadLog.DISCARD) {
+                recovered.remove(CardWalCodec.decodeCardId(payload));
+            }
+        });
+        if (!recovered.isEmpty()) {
+            log.info("Replaying {} cards from write-ahead log {}", recovered.size(), walPath);
+            flushTransaction.executeWithoutResult(status -> upsert(new ArrayList<>(recovered.values())));
+        }
+        wal.reset();
+
+        flusher = new Thread(this::flushLoop, "card-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Card write-behind enabled, WAL {} ({} bytes), flush every {}", walPath, walCapacity, flushInterval);
+    }
+
+    /**
+     * Logs the cards durably and schedules them for the database. Within a transaction the cards become
+     * durable and visible when it commits.
+     */
+    public void write(List<Card> cards) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            commitToLog(cards).forEach((cardId, previous) -> markCommitted(cardId));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Card> staged = (List<Card>) TransactionSynchronizationManager.getResource(this);
+        if (staged == null) {
+            List<Card> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                Map<String, Pending> previous;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    previous = commitToLog(buffer);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CardWriteBehind.this);
+                    if (previous == null) {
+                        return;
+                    }
+                    if (status == STATUS_COMMITTED) {
+                        previous.keySet().forEach(CardWriteBehind.this::markCommitted);
+                    } else {
+                        restore(previous);
+                    }
+                }
+            });
+            staged = buffer;
+        }
+        staged.addAll(cards);
+    }
+
+    public Optional<Card> findPending(String cardId) {
+        lock.lock();
+        try {
+            Pending entry = pending.get(cardId);
+            return entry != null && entry.committed ? Optional.of(entry.card) : Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<Card> findPending(Predicate<Card> predicate) {
+        lock.lock();
+        try {
+            return pending.values().stream()
+                    .filter(entry -> entry.committed && predicate.test(entry.card))
+                    .map(entry -> entry.card)
+                    .findFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether a card matching {@code predicate} is waiting for the database, including cards whose transaction is
+     * committing: the database does not have them yet, so reads of it are not safe to cache.
+     */
+    public boolean hasPending(Predicate<Card> predicate) {
+        lock.lock();
+        try {
+            return pending.values().stream().anyMatch(entry -> predicate.test(entry.card));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the card to the database now if it is still pending, so statements that update the row in place
+     * (balance changes) find it. Inside a transaction the row is written on that transaction's connection, and the
+     * card stays pending until it commits; outside one only that card is written, in its own transaction.
+     */
+    public void flushIfPending(String cardId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Pending entry;
+            lock.lock();
+            try {
+                entry = pending.get(cardId);
+            } finally {
+                lock.unlock();
+            }
+            if (entry != null && entry.committed) {
+                flush(List.of(entry));
+            }
+            return;
+        }
+
+        Pending entry;
+        // the monitor waits out a flush that may already hold this entry; once claimed, flushes skip it
+        synchronized (this) {
+            lock.lock();
+            try {
+                entry = pending.get(cardId);
+                if (entry == null || !entry.committed) {
+                    return;
+                }
+                entry.writers++;
+            } finally {
+                lock.unlock();
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.lock();
+                try {
+                    entry.writers--;
+                    // rolled back: the card stays pending and the flusher writes it
+                    if (status == STATUS_COMMITTED) {
+                        pending.remove(cardId, entry);
+                        if (pending.isEmpty()) {
+                            wal.reset();
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+        upsert(List.of(entry.card));
+    }
+
+    /**
+     * Writes every committed pending card to the database.
+     */
+    public void flush() {
+        List<Pending> batch;
+        lock.lock();
+        try {
+            batch = new ArrayList<>(pending.size());
+            for (Pending entry : pending.values()) {
+                if (entry.committed) {
+                    batch.add(entry);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private synchronized void flush(List<Pending> batch) {
+        lock.lock();
+        try {
+            // claimed by a caller's transaction since the batch was taken: that transaction writes the newer state
+            batch = batch.stream().filter(entry -> entry.writers == 0).toList();
+        } finally {
+            lock.unlock();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        // own transaction: the flusher has none, and a single-card flush outside a transaction commits on its own
+        List<Pending> written = batch;
+        flushTransaction.executeWithoutResult(status -> upsert(written.stream().map(entry -> entry.card).toList()));
+
+        lock.lock();
+        try {
+            // a card saved again while we were writing stays pending with its newer state
+            written.forEach(entry -> pending.remove(entry.card.getCardId(), entry));
+            if (pending.isEmpty()) {
+                wal.reset();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        stopped.countDown();
+        if (flusher != null) {
+            flusher.join(Duration.ofSeconds(30).toMillis());
+        }
+        flush();
+        wal.close();
+    }
+
+    private Map<String, Pending> commitToLog(List<Card> cards) {
+        Map<String, Card> latest = new LinkedHashMap<>();
+        cards.forEach(card -> latest.put(card.getCardId(), card));
+
+        List<CardWriteAheadLog.Entry> entries = latest.values().stream()
+                .map(card -> new CardWriteAheadLog.Entry(CardWriteAheadLog.UPSERT, CardWalCodec.encode(card)))
+                .toList();
+
+        lock.lock();
+        try {
+            appendOrCompact(entries);
+            Map<String, Pending> previous = new HashMap<>();
+            latest.forEach((cardId, card) -> previous.put(cardId, pending.put(cardId, new Pending(card))));
+            return previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markCommitted(String cardId) {
+        lock.lock();
+        try {
+            Pending entry = pending.get(cardId);
+            if (entry != null) {
+                entry.committed = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void restore(Map<String, Pending> previous) {
+        lock.lock();
+        try {
+            List<CardWriteAheadLog.Entry> entries = new ArrayList<>(previous.size());
+            previous.forEach((cardId, entry) -> {
+                if (entry == null) {
+                    pending.remove(cardId);
+                    entries.add(new CardWriteAheadLog.Entry(CardWriteAheadLog.DISCARD, CardWalCodec.encodeCardId(cardId)));
+                } else {
+                    pending.put(cardId, entry);
+                    entries.add(new CardWriteAheadLog.Entry(CardWriteAheadLog.UPSERT, CardWalCodec.encode(entry.card)));
+                }
+            });
+            appendOrCompact(entries);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // caller holds lock
+    private void appendOrCompact(List<CardWriteAheadLog.Entry> entries) {
+        if (wal.append(entries)) {
+            return;
+        }
+        // log full: start a new generation holding only what is still pending, then retry
+        List<CardWriteAheadLog.Entry> live = new ArrayList<>(pending.size());
+        pending.values().forEach(entry ->
+                live.add(new CardWriteAheadLog.Entry(CardWriteAheadLog.UPSERT, CardWalCodec.encode(entry.card))));
+        wal.reset();
+        if (!wal.append(live) || !wal.append(entries)) {
+            throw new IllegalStateException("Card write-ahead log is full, increase card.persistence.wal.size");
+        }
+    }
+
+    private void upsert(List<Card> cards) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, cards, flushBatchSize, (ps, card) -> {
+            ps.setBytes(1, CardIds.toBytes(card.getCardId()));
+            ps.setString(2, card.getAccountId());
+            ps.setString(3, card.getCardNumber());
+            ps.setString(4, card.getCardHolderName());
+            ps.setString(5, card.getCvvNumber());
+            ps.setString(6, card.getCardType().name());
+            ps.setString(7, card.getCardStatus().name());
+            ps.setTimestamp(8, new Timestamp(card.getIssuanceAt().getTime()));
+            ps.setTimestamp(9, new Timestamp(card.getExpiryDate().getTime()));
+            ps.setBigDecimal(10, card.getAvailableBalance());
+            ps.setBigDecimal(11, card.getCreditLimit());
+        });
+    }
+
+    private void flushLoop() {
+        try {
+            while (!stopped.await(flushInterval.toMillis(), TimeUnit.MILLISECONDS)) {
+                try {
+                    flush();
+                } catch (RuntimeException e) {
+                    // cards stay pending and logged; the next tick retries
+                    log.error("Card write-behind flush failed, {} cards pending", pendingCount(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Pending {
+        final Card card;
+        boolean committed;
+        // open transactions that wrote this card through flushIfPending
+        int writers;
+
+        Pending(Card card) {
+            this.card = card;
+        }
+    }
+}
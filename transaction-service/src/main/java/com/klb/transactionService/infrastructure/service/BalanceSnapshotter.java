@@ -0,0 +1,72 @@
+package com.klb.transactionService.infrastructure.service;
+
+import com.klb.transactionService.domain.repositories.BalanceJournalRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compacts the balance journal in the background: cards whose tail since the last snapshot has grown past
+ * {@code card.ledger.min-tail} get a new snapshot, so rebuilding a balance only sums a short tail.
+ * <p>
+ * Each run only looks at movements appended since the previous one, in id ranges of
+ * {@code card.ledger.scan-size}; the watermark lives in memory, so the first run after a start scans the
+ * journal once. A movement that commits after its id range was scanned is still folded, by the card's next
+ * snapshot. With a positive {@code card.ledger.retention}, movements covered by a snapshot and older than the
+ * retention are deleted.
+ */
+@Component
+@Slf4j
+public class BalanceSnapshotter {
+
+    private final BalanceJournalRepository balanceJournal;
+    private final int minTail;
+    private final int scanSize;
+    private final Duration retention;
+
+    // movements up to this id have been checked; only touched by the scheduler thread
+    private long scannedUpTo;
+
+    public BalanceSnapshotter(BalanceJournalRepository balanceJournal,
+                              @Value("${card.ledger.min-tail:100}") int minTail,
+                              @Value("${card.ledger.scan-size:10000}") int scanSize,
+                              @Value("${card.ledger.retention:0s}") Duration retention) {
+        this.balanceJournal = balanceJournal;
+        this.minTail = minTail;
+        this.scanSize = scanSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${card.ledger.snapshot-interval:PT1M}")
+    public void compact() {
+        long head = balanceJournal.lastMovementId();
+        int snapshotted = 0;
+        int purged = 0;
+        while (scannedUpTo < head) {
+            long upTo = Math.min(head, scannedUpTo + scanSize);
+            List<String> cardIds = balanceJournal.findCardsToSnapshot(scannedUpTo, upTo, minTail);
+            Date purgeBefore = new Date(System.currentTimeMillis() - retention.toMillis());
+            for (String cardId : cardIds) {
+                try {
+                    balanceJournal.snapshot(cardId);
+                    snapshotted++;
+                    if (!retention.isZero()) {
+                        purged += balanceJournal.purgeCompacted(cardId, purgeBefore);
+                    }
+                } catch (RuntimeException e) {
+                    // the card is picked up again with its next movement
+                    log.warn("Failed to snapshot balance journal of card {}: {}", cardId, e.getMessage());
+                }
+            }
+            scannedUpTo = upTo;
+        }
+        if (snapshotted > 0) {
+            log.info("Snapshotted balance journal of {} cards, purged {} movements", snapshotted, purged);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.klb.transactionService.infrastructure.service;
+
+import com.klb.transactionService.domain.services.CardNumberFilter;
+import com.klb.transactionService.shared.utils.CardIds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+
+/**
+ * Bloom filter over card numbers, kept in a memory-mapped file so a restart reuses it instead of scanning
+ * the card table. Numbers are added on every save; a scheduled catch-up also reads the numbers of cards
+ * created since the last sync, which covers cards saved by other instances. Card ids are time-ordered, so
+ * the catch-up is a primary key range scan starting {@code card.number-filter.catch-up-lag} before the last
+ * sync; the lag must exceed the longest card-creating transaction. The range is closed one lag after now:
+ * legacy random (version 4) ids sort anywhere in the key space, and an open range would re-read most of them
+ * on every catch-up.
+ * <p>
+ * A card created on another instance can be reported missing until the next catch-up. Until the first load
+ * has finished every number is reported as possibly present, so lookups fall through to the database.
+ */
+@Component
+@Slf4j
+public class BloomCardNumberFilter implements CardNumberFilter, InitializingBean, DisposableBean {
+
+    private static final int MAGIC = 0x4B4C4246;
+    private static final int VERSION = 1;
+
+    // header: magic, version, hash count, complete flag, bit count, synced-at millis; bit words follow
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int HASHES_OFFSET = 8;
+    private static final int COMPLETE_OFFSET = 12;
+    private static final int BITS_OFFSET = 16;
+    private static final int SYNCED_AT_OFFSET = 24;
+    private static final int HEADER_BYTES = 64;
+
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final String ALL_NUMBERS_SQL = "SELECT card_number FROM card";
+    private static final String NUMBERS_SINCE_SQL = "SELECT card_number FROM card WHERE card_id >= ? AND card_id < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path path;
+    private final long numBits;
+    private final int numHashes;
+    private final Duration catchUpLag;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private Thread loader;
+    private volatile boolean ready;
+
+    public BloomCardNumberFilter(JdbcTemplate jdbcTemplate,
+                                 @Value("${card.number-filter.path:data/card-number-bloom.bin}") Path path,
+                                 @Value("${card.number-filter.expected-cards:10000000}") long expectedCards,
+                                 @Value("${card.number-filter.false-positive-rate:0.001}") double falsePositiveRate,
+                                 @Value("${card.number-filter.catch-up-lag:10s}") Duration catchUpLag) {
+        if (expectedCards <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("card.number-filter expected-cards must be positive and "
+                    + "false-positive-rate between 0 and 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.path = path;
+        double bits = -expectedCards * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.numBits = ((long) Math.ceil(bits) + 63) & ~63L;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedCards * Math.log(2)));
+        this.catchUpLag = catchUpLag;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + numBits / Byte.SIZE);
+
+        boolean reusable = buffer.getInt(MAGIC_OFFSET) == MAGIC
+                && buffer.getInt(VERSION_OFFSET) == VERSION
+                && buffer.getInt(HASHES_OFFSET) == numHashes
+                && buffer.getLong(BITS_OFFSET) == numBits
+                && buffer.getInt(COMPLETE_OFFSET) == 1;
+        if (!reusable) {
+            // new file, other sizing or an interrupted build: start from an empty filter
+            for (long offset = HEADER_BYTES; offset < buffer.capacity(); offset += Long.BYTES) {
+                WORDS.set(buffer, (int) offset, 0L);
+            }
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            buffer.putInt(VERSION_OFFSET, VERSION);
+            buffer.putInt(HASHES_OFFSET, numHashes);
+            buffer.putInt(COMPLETE_OFFSET, 0);
+            buffer.putLong(BITS_OFFSET, numBits);
+            buffer.force();
+        }
+
+        startLoader();
+    }
+
+    @Override
+    public boolean mightContain(String cardNumber) {
+        if (!ready) {
+            return true;
+        }
+        long h1 = hash(cardNumber);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+            long word = (long) WORDS.getAcquire(buffer, wordOffset(bit));
+            if ((word & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void add(String cardNumber) {
+        long h1 = hash(cardNumber);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+            WORDS.getAndBitwiseOr(buffer, wordOffset(bit), 1L << bit);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds the numbers of cards created since the last sync.
+     */
+    @Scheduled(fixedDelayString = "${card.number-filter.refresh-interval:PT1S}")
+    public void refresh() {
+        if (!ready) {
+            if (!loader.isAlive()) {
+                // the last load failed
+                startLoader();
+            }
+            return;
+        }
+        synchronized (this) {
+            long startedAt = System.currentTimeMillis();
+            catchUp();
+            markSynced(startedAt);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void startLoader() {
+        loader = new Thread(this::load, "card-number-filter-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private synchronized void load() {
+        boolean reusable = buffer.getInt(COMPLETE_OFFSET) == 1;
+        try {
+            long startedAt = System.currentTimeMillis();
+            long added = reusable ? catchUp() : addAll(ALL_NUMBERS_SQL);
+            markSynced(startedAt);
+            ready = true;
+            log.info("Card number filter {} from {}: {} numbers read, {} bits, {} hashes",
+                    reusable ? "reused" : "built", path, added, numBits, numHashes);
+        } catch (RuntimeException e) {
+            log.error("Failed to load card number filter {}, lookups by card number go to the database", path, e);
+        }
+    }
+
+    private long catchUp() {
+        long since = buffer.getLong(SYNCED_AT_OFFSET) - catchUpLag.toMillis();
+        // the upper bound leaves room for instances whose clock runs ahead
+        long until = System.currentTimeMillis() + catchUpLag.toMillis();
+        return addAll(NUMBERS_SINCE_SQL, CardIds.toBytes(CardIds.lowerBound(Math.max(0, since))),
+                CardIds.toBytes(CardIds.lowerBound(until)));
+    }
+
+    private long addAll(String sql, Object... args) {
+        long[] count = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(1000);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, rs -> {
+            add(rs.getString(1));
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    // bits reach the file before the header that says they cover everything up to startedAt
+    private void markSynced(long startedAt) {
+        buffer.force();
+        buffer.putLong(SYNCED_AT_OFFSET, startedAt);
+        buffer.putInt(COMPLETE_OFFSET, 1);
+        buffer.force(0, HEADER_BYTES);
+    }
+
+    private static int wordOffset(long bit) {
+        return Math.toIntExact(HEADER_BYTES + (bit >>> 6) * Long.BYTES);
+    }
+
+    private static long hash(String cardNumber) {
+        // FNV-1a over the digits, then a murmur3 finaliser to spread sequential numbers
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < cardNumber.length(); i++) {
+            h ^= cardNumber.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,256 @@
+package com.klb.transactionService.infrastructure.service;
+
+import com.klb.transactionService.domain.repositories.CardRepository;
+import com.klb.transactionService.domain.services.CardNumberAllocator;
+import com.klb.transactionService.domain.services.CardNumberFilter;
+import com.klb.transactionService.infrastructure.persistence.entities.CardNumberSequence;
+import com.klb.transactionService.infrastructure.persistence.repositories.CardNumberSequenceRepositoryImpl;
+import com.klb.transactionService.shared.utils.Luhn;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Allocates 16-digit Luhn-valid PANs of the form BIN + account number + check digit.
+ * <p>
+ * Each instance reserves a block of account numbers per BIN from {@code card_number_sequence} (row lock,
+ * own transaction), then hands numbers out of memory with one atomic increment and no DB round trip.
+ * The first block is reserved at startup and the next one in the background once the current one drops below
+ * the low-water mark. A caller inside a transaction never reserves a block itself: it already holds a pooled
+ * connection, and a REQUIRES_NEW reservation from every such caller could exhaust the pool. It waits at most
+ * {@code card.number.reserve-timeout} for the background reservation instead.
+ * Sequence values are scrambled by a bijective multiplication so issued PANs are not consecutive.
+ * <p>
+ * Numbers issued before the allocator (random PANs under the same BIN) can collide with a sequence value; such
+ * values are skipped. The pre-check goes through the card number filter, so almost every number costs no query.
+ * It is not made while the filter is still loading, where every check would be a query, nor for a BIN configured
+ * with {@code card.number.legacy-numbers=false}; a colliding number is then rejected by the {@code card_number}
+ * unique key, as is a number the filter misses.
+ * <p>
+ * Block switches are serialized by a {@link ReentrantLock} rather than {@code synchronized}: a caller waits on the
+ * background reservation while holding it, and a virtual thread blocked inside a monitor would pin its carrier.
+ */
+@Service
+@Slf4j
+public class CardNumberAllocatorImpl implements CardNumberAllocator, InitializingBean, DisposableBean {
+
+    private static final int PAN_LENGTH = 16;
+    // 3^18: coprime with 10, so seq -> seq * M mod 10^n is a permutation of the block space
+    private static final long SCRAMBLE_MULTIPLIER = 387_420_489L;
+
+    private final CardNumberSequenceRepositoryImpl sequenceRepository;
+    private final CardRepository cardRepository;
+    private final CardNumberFilter cardNumberFilter;
+    private final TransactionTemplate requiresNew;
+    private final ExecutorService replenisher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "card-number-replenisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String bin;
+    private final int blockSize;
+    private final int lowWaterMark;
+    private final long capacity;
+    private final long multiplier;
+    private final Duration reserveTimeout;
+    private final boolean legacyNumbers;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Block current = Block.EXHAUSTED;
+    private CompletableFuture<Block> pending;
+
+    public CardNumberAllocatorImpl(CardNumberSequenceRepositoryImpl sequenceRepository,
+                                   CardRepository cardRepository,
+                                   CardNumberFilter cardNumberFilter,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${card.number.bin:970452}") String bin,
+                                   @Value("${card.number.block-size:1000}") int blockSize,
+                                   @Value("${card.number.low-water-mark:200}") int lowWaterMark,
+                                   @Value("${card.number.reserve-timeout:5s}") Duration reserveTimeout,
+                                   @Value("${card.number.legacy-numbers:true}") boolean legacyNumbers) {
+        if (bin.length() < 6 || bin.length() > 8 || !bin.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("Invalid card BIN: " + bin);
+        }
+        this.sequenceRepository = sequenceRepository;
+        this.cardRepository = cardRepository;
+        this.cardNumberFilter = cardNumberFilter;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.bin = bin;
+        this.blockSize = blockSize;
+        this.lowWaterMark = Math.min(lowWaterMark, blockSize - 1);
+        this.capacity = pow10(PAN_LENGTH - 1 - bin.length());
+        this.multiplier = SCRAMBLE_MULTIPLIER % capacity;
+        this.reserveTimeout = reserveTimeout;
+        this.legacyNumbers = legacyNumbers;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        current = reserveBlock();
+    }
+
+    @Override
+    public String next() {
+        while (true) {
+            Block block = current;
+            long value = block.cursor.getAndIncrement();
+            if (value < block.end) {
+                if (block.end - value == lowWaterMark) {
+                    prefetch();
+                }
+                String number = format(value);
+                if (!mayBeIssued(number)) {
+                    return number;
+                }
+                log.debug("Skipping sequence value {} of BIN {}: number issued before the allocator", value, bin);
+                continue;
+            }
+            advance(block);
+        }
+    }
+
+    @Override
+    public List<String> next(int count) {
+        List<String> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            numbers.add(next());
+        }
+        return numbers;
+    }
+
+    private boolean mayBeIssued(String number) {
+        // while the filter loads, every check would be a query; the unique key still rejects a collision
+        if (!legacyNumbers || !cardNumberFilter.isReady()) {
+            return false;
+        }
+        return cardRepository.existsByCardNumber(number);
+    }
+
+    private void prefetch() {
+        lock.lock();
+        try {
+            if (pending == null) {
+                pending = CompletableFuture.supplyAsync(this::reserveBlock, replenisher);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void advance(Block exhausted) {
+        lock.lock();
+        try {
+            if (current != exhausted) {
+                return; // another thread already switched blocks
+            }
+            if (pending == null) {
+                if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                    // no connection held by this caller, so reserving here cannot starve the pool
+                    current = reserveBlock();
+                    return;
+                }
+                prefetch();
+            }
+            current = pending.get(reserveTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            pending = null;
+        } catch (TimeoutException e) {
+            // pending stays, the next caller keeps waiting on the same reservation
+            throw new IllegalStateException("No card numbers reserved within " + reserveTimeout, e);
+        } catch (ExecutionException e) {
+            pending = null;
+            throw new IllegalStateException("Failed to reserve card numbers for BIN " + bin, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for card numbers", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Block reserveBlock() {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                Block block = requiresNew.execute(status -> {
+                    CardNumberSequence sequence = sequenceRepository.findForUpdate(bin)
+                            .orElseGet(() -> CardNumberSequence.builder().bin(bin).nextValue(0).build());
+                    long start = sequence.getNextValue();
+                    long end = Math.min(start + blockSize, capacity);
+                    if (start >= end) {
+                        throw new IllegalStateException("Card number space exhausted for BIN " + bin);
+                    }
+                    sequence.setNextValue(end);
+                    sequenceRepository.saveAndFlush(sequence);
+                    return new Block(start, end);
+                });
+                log.info("Reserved card numbers [{}, {}) for BIN {}", block.start, block.end, bin);
+                return block;
+            } catch (DataIntegrityViolationException e) {
+                // hai instance cùng tạo dòng sequence lần đầu: thử lại để đọc dòng đã tồn tại
+                if (attempt > 0) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private String format(long sequenceValue) {
+        // both factors are below 10^9 (BIN >= 6 digits), so the product cannot overflow
+        long accountNumber = sequenceValue * multiplier % capacity;
+        char[] pan = new char[PAN_LENGTH];
+        bin.getChars(0, bin.length(), pan, 0);
+        for (int i = PAN_LENGTH - 2; i >= bin.length(); i--) {
+            pan[i] = (char) ('0' + accountNumber % 10);
+            accountNumber /= 10;
+        }
+        pan[PAN_LENGTH - 1] = (char) ('0' + Luhn.checkDigit(pan, PAN_LENGTH - 1));
+        return new String(pan);
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+
+    @Override
+    public void destroy() {
+        replenisher.shutdownNow();
+    }
+
+    private static final class Block {
+        static final Block EXHAUSTED = new Block(0, 0);
+
+        final long start;
+        final long end;
+        final AtomicLong cursor;
+
+        Block(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.cursor = new AtomicLong(start);
+        }
+    }
+}
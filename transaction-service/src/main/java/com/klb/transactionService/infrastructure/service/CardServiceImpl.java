@@ -1,8 +1,24 @@
 package com.klb.transactionService.infrastructure.service;
 
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.readmodel.CardView;
+import com.klb.transactionService.domain.repositories.CardReadRepository;
 import com.klb.transactionService.domain.services.CardService;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
 
 @Service
+@RequiredArgsConstructor
 public class CardServiceImpl implements CardService {
+
+    private final CardReadRepository cardReadRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportByStatus(CardStatus status, Consumer<CardView> action) {
+        cardReadRepository.forEachByCardStatus(status, action);
+    }
 }
@@ -0,0 +1,346 @@
+package com.klb.transactionService.infrastructure.service;
+
+import com.klb.transactionService.domain.entities.BalanceMovement;
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.enums.MovementType;
+import com.klb.transactionService.domain.event.card.CardBalanceChangedEvent;
+import com.klb.transactionService.domain.repositories.BalanceJournalRepository;
+import com.klb.transactionService.domain.repositories.CardRepository;
+import com.klb.transactionService.domain.services.BalanceLaneSnapshot;
+import com.klb.transactionService.domain.services.BalanceLanes;
+import com.klb.transactionService.shared.utils.MinorUnits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process single writer per card. A card id hashes to one lane; each lane is a single thread that drains
+ * its queue and, per card in the drained batch, applies every queued debit/credit to the card's balance in
+ * minor units and, in one transaction, writes the result with a compare-and-set UPDATE and appends one journal
+ * line per accepted operation. Bursts on a hot card therefore cost one write per lane tick instead of one row
+ * lock wait per request.
+ * <p>
+ * Each lane keeps the last balance it wrote for up to {@code card.balance.cached-cards} cards, so a card is only
+ * read when it is new to the lane or the compare-and-set (which also requires the card not to be blocked) fails.
+ * If it keeps failing against writers outside this instance, or the card is blocked, the batch falls back to the
+ * per-operation conditional UPDATEs of {@link CardRepository#debitIfSufficient}, which are always safe.
+ */
+@Service
+@Slf4j
+public class ShardedBalanceLanes implements BalanceLanes, DisposableBean {
+
+    private static final int MAX_CAS_ATTEMPTS = 3;
+
+    private final CardRepository cardRepository;
+    private final BalanceJournalRepository balanceJournal;
+    private final TransactionTemplate writeTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatch;
+    private final int cachedCards;
+    private final Duration shutdownTimeout;
+    private final Lane[] lanes;
+
+    private volatile boolean running = true;
+
+    public ShardedBalanceLanes(CardRepository cardRepository,
+                               BalanceJournalRepository balanceJournal,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${card.balance.lanes:16}") int laneCount,
+                               @Value("${card.balance.queue-capacity:10000}") int queueCapacity,
+                               @Value("${card.balance.max-batch:256}") int maxBatch,
+                               @Value("${card.balance.cached-cards:10000}") int cachedCards,
+                               @Value("${card.balance.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        if (laneCount <= 0 || queueCapacity <= 0 || maxBatch <= 0 || cachedCards < 0) {
+            throw new IllegalArgumentException(
+                    "card.balance lanes, queue-capacity and max-batch must be positive, cached-cards not negative");
+        }
+        this.cardRepository = cardRepository;
+        this.balanceJournal = balanceJournal;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.maxBatch = maxBatch;
+        this.cachedCards = cachedCards;
+        this.shutdownTimeout = shutdownTimeout;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, queueCapacity);
+            lanes[i].thread.start();
+        }
+        log.info("Started {} balance lanes", laneCount);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> debit(String cardId, long amountMinor) {
+        return submit(new Operation(cardId, -amountMinor));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> credit(String cardId, long amountMinor) {
+        return submit(new Operation(cardId, amountMinor));
+    }
+
+    @Override
+    public List<BalanceLaneSnapshot> snapshot() {
+        List<BalanceLaneSnapshot> snapshots = new ArrayList<>(lanes.length);
+        for (Lane lane : lanes) {
+            snapshots.add(BalanceLaneSnapshot.builder()
+                    .lane(lane.index)
+                    .queueDepth(lane.queue.size())
+                    .largestBatch(lane.largestBatch)
+                    .operations(lane.operations.sum())
+                    .writes(lane.writes.sum())
+                    .build());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Stops accepting operations, lets the lanes finish what is queued and fails whatever is left after
+     * {@code card.balance.shutdown-timeout}, so no caller waits on a future that nothing will complete.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Lane lane : lanes) {
+            lane.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+        List<Operation> stranded = new ArrayList<>();
+        for (Lane lane : lanes) {
+            lane.queue.drainTo(stranded);
+        }
+        if (!stranded.isEmpty()) {
+            log.warn("Failing {} balance operations still queued at shutdown", stranded.size());
+            stranded.forEach(operation -> operation.result.completeExceptionally(shutDown()));
+        }
+    }
+
+    private CompletableFuture<Boolean> submit(Operation operation) {
+        if (!running) {
+            return CompletableFuture.failedFuture(shutDown());
+        }
+        Lane lane = lanes[laneOf(operation.cardId)];
+        if (!lane.queue.offer(operation)) {
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Balance lane " + lane.index + " is full"));
+        }
+        // destroy() may have drained the queue between the check above and the offer
+        if (!running && lane.queue.remove(operation)) {
+            operation.result.completeExceptionally(shutDown());
+        }
+        return operation.result;
+    }
+
+    private static RejectedExecutionException shutDown() {
+        return new RejectedExecutionException("Balance lanes are shut down");
+    }
+
+    private int laneOf(String cardId) {
+        int hash = cardId.hashCode();
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % lanes.length;
+    }
+
+    private void apply(String cardId, List<Operation> operations, Lane lane) {
+        CardState state = null;
+        try {
+            for (int attempt = 0; attempt < MAX_CAS_ATTEMPTS; attempt++) {
+                state = lane.cards.get(cardId);
+                boolean cached = state != null;
+                if (!cached) {
+                    Optional<Card> loaded = cardRepository.findById(cardId);
+                    if (loaded.isEmpty()) {
+                        operations.forEach(operation -> operation.result.complete(false));
+                        return;
+                    }
+                    Card card = loaded.get();
+                    state = new CardState(card.getAccountId(), card.getCardNumber(),
+                            MinorUnits.of(card.getAvailableBalance()));
+                    if (card.getCardStatus() == CardStatus.BLOCKED) {
+                        // the compare-and-set never matches a blocked card; debits are declined one by one
+                        break;
+                    }
+                }
+
+                long expected = state.balanceMinor();
+                long updated = expected;
+                boolean[] accepted = new boolean[operations.size()];
+                boolean declined = false;
+                for (int i = 0; i < accepted.length; i++) {
+                    long delta = operations.get(i).deltaMinor;
+                    if (delta >= 0 || updated >= -delta) {
+                        updated = Math.addExact(updated, delta);
+                        accepted[i] = true;
+                    } else {
+                        declined = true;
+                    }
+                }
+                if (declined && cached) {
+                    // a decline is final, so it is never based on a balance another writer may have raised
+                    lane.cards.remove(cardId);
+                    continue;
+                }
+
+                List<BalanceMovement> movements = journalLines(cardId, operations, accepted);
+                long balance = updated;
+                CardState current = state;
+                boolean written = movements.isEmpty() || Boolean.TRUE.equals(writeTransaction.execute(status -> {
+                    if (!cardRepository.compareAndSetBalance(cardId, expected, balance)) {
+                        return false;
+                    }
+                    balanceJournal.appendAll(movements);
+                    // published inside the transaction so the outbox row commits with the balance
+                    eventPublisher.publishEvent(new CardBalanceChangedEvent(this, cardId, current.accountId(),
+                            current.cardNumber(), balance - expected));
+                    return true;
+                }));
+
+                if (!written) {
+                    // changed outside this lane or blocked since it was cached: read it again
+                    lane.cards.remove(cardId);
+                    continue;
+                }
+                lane.cards.put(cardId, state.withBalance(updated));
+                if (!movements.isEmpty()) {
+                    lane.writes.increment();
+                }
+                for (int i = 0; i < accepted.length; i++) {
+                    operations.get(i).result.complete(accepted[i]);
+                }
+                return;
+            }
+
+            log.debug("Balance of card {} contended outside lane {} or card blocked, applying {} operations one by one",
+                    cardId, lane.index, operations.size());
+            lane.cards.remove(cardId);
+            CardState current = state;
+            for (Operation operation : operations) {
+                boolean ok = Boolean.TRUE.equals(writeTransaction.execute(status -> {
+                    boolean changed = operation.deltaMinor < 0
+                            ? cardRepository.debitIfSufficient(cardId, -operation.deltaMinor)
+                            : cardRepository.credit(cardId, operation.deltaMinor);
+                    if (changed) {
+                        balanceJournal.appendAll(List.of(journalLine(cardId, operation.deltaMinor, new Date())));
+                        eventPublisher.publishEvent(new CardBalanceChangedEvent(this, cardId, current.accountId(),
+                                current.cardNumber(), operation.deltaMinor));
+                    }
+                    return changed;
+                }));
+                lane.writes.increment();
+                operation.result.complete(ok);
+            }
+        } catch (RuntimeException e) {
+            log.error("Balance lane {} failed to apply operations for card {}", lane.index, cardId, e);
+            lane.cards.remove(cardId);
+            operations.forEach(operation -> operation.result.completeExceptionally(e));
+        }
+    }
+
+    private static List<BalanceMovement> journalLines(String cardId, List<Operation> operations, boolean[] accepted) {
+        Date now = new Date();
+        List<BalanceMovement> movements = new ArrayList<>(operations.size());
+        for (int i = 0; i < accepted.length; i++) {
+            if (accepted[i]) {
+                movements.add(journalLine(cardId, operations.get(i).deltaMinor, now));
+            }
+        }
+        return movements;
+    }
+
+    private static BalanceMovement journalLine(String cardId, long deltaMinor, Date createdAt) {
+        return BalanceMovement.builder()
+                .cardId(cardId)
+                .type(deltaMinor < 0 ? MovementType.DEBIT : MovementType.CREDIT)
+                .amountMinor(deltaMinor)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private record CardState(String accountId, String cardNumber, long balanceMinor) {
+        CardState withBalance(long balanceMinor) {
+            return new CardState(accountId, cardNumber, balanceMinor);
+        }
+    }
+
+    private record Operation(String cardId, long deltaMinor, CompletableFuture<Boolean> result) {
+        Operation(String cardId, long deltaMinor) {
+            this(cardId, deltaMinor, new CompletableFuture<>());
+        }
+    }
+
+    private final class Lane implements Runnable {
+        private final int index;
+        private final BlockingQueue<Operation> queue;
+        private final Thread thread;
+        private final LongAdder operations = new LongAdder();
+        private final LongAdder writes = new LongAdder();
+        // only touched by this lane's thread; least recently used cards are dropped first
+        private final Map<String, CardState> cards = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CardState> eldest) {
+                return size() > cachedCards;
+            }
+        };
+        private volatile int largestBatch;
+
+        Lane(int index, int queueCapacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "balance-lane-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Operation> batch = new ArrayList<>(maxBatch);
+            Map<String, List<Operation>> byCard = new LinkedHashMap<>();
+            while (running || !queue.isEmpty()) {
+                try {
+                    Operation first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatch - 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                if (batch.size() > largestBatch) {
+                    largestBatch = batch.size();
+                }
+                operations.add(batch.size());
+                for (Operation operation : batch) {
+                    if (operation.result.isDone()) {
+                        // the caller timed out waiting in the queue
+                        continue;
+                    }
+                    byCard.computeIfAbsent(operation.cardId, key -> new ArrayList<>()).add(operation);
+                }
+                byCard.forEach((cardId, cardOperations) -> apply(cardId, cardOperations, this));
+                byCard.clear();
+                batch.clear();
+            }
+        }
+    }
+}
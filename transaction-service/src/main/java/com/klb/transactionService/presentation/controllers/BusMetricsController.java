@@ -0,0 +1,47 @@
+package com.klb.transactionService.presentation.controller;
+
+import com.klb.transactionService.core.pipeline.BusMetrics;
+import com.klb.transactionService.core.pipeline.LatencySnapshot;
+import com.klb.transactionService.domain.services.BalanceLaneSnapshot;
+import com.klb.transactionService.domain.services.BalanceLanes;
+import com.klb.transactionService.presentation.dto.ApiResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BusMetricsController {
+    BusMetrics busMetrics;
+    BalanceLanes balanceLanes;
+
+    /**
+     * Latency percentiles per request type, slowest p99 first.
+     */
+    @GetMapping("/bus-metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<List<LatencySnapshot>> getBusMetrics() {
+        return ApiResponse.<List<LatencySnapshot>>builder()
+                .result(busMetrics.snapshot())
+                .build();
+    }
+
+    /**
+     * Queue depth and coalescing counters of every balance lane.
+     */
+    @GetMapping("/balance-lanes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<List<BalanceLaneSnapshot>> getBalanceLanes() {
+        return ApiResponse.<List<BalanceLaneSnapshot>>builder()
+                .result(balanceLanes.snapshot())
+                .build();
+    }
+}
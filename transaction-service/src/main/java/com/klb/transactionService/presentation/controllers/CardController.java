@@ -1,28 +1,62 @@
 package com.klb.transactionService.presentation.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.klb.transactionService.application.card.commands.card.CardBalanceResponse;
 import com.klb.transactionService.application.card.commands.card.CreateCardCommand;
+import com.klb.transactionService.application.card.commands.card.CreditCardCommand;
+import com.klb.transactionService.application.card.commands.card.DebitCardCommand;
 import com.klb.transactionService.application.card.commands.card.CreateCardResponse;
+import com.klb.transactionService.application.card.commands.card.CreateCardsBatchCommand;
+import com.klb.transactionService.application.card.commands.card.CreateCardsBatchResponse;
+import com.klb.transactionService.application.card.queries.card.CardListResponse;
+import com.klb.transactionService.application.card.queries.card.CardStatementResponse;
+import com.klb.transactionService.application.card.queries.card.GetCardByCardNumberQuery;
+import com.klb.transactionService.application.card.queries.card.GetCardByCardNumberResponse;
+import com.klb.transactionService.application.card.queries.card.GetCardsByAccountQuery;
+import com.klb.transactionService.application.card.queries.card.GetCardStatementQuery;
+import com.klb.transactionService.application.card.queries.card.GetCardsByStatusQuery;
 import com.klb.transactionService.core.mediator.CqrsBus;
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.readmodel.CardView;
 import com.klb.transactionService.presentation.dto.ApiResponse;
+import com.klb.transactionService.presentation.dto.CardRequest.BalanceChangeRequest;
 import com.klb.transactionService.presentation.dto.CardRequest.CreateCardRequest;
+import com.klb.transactionService.presentation.dto.CardRequest.CreateCardsBatchRequest;
 import com.klb.transactionService.domain.services.CardService;
+import com.klb.transactionService.shared.exception.AppException;
+import com.klb.transactionService.shared.exception.ErrorCode;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/cards")
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class CardController {
+    static final String NDJSON = "application/x-ndjson";
+    static final int EXPORT_FLUSH_EVERY = 1000;
+
     CardService cardService;
     final CqrsBus cqrsBus;
+    ObjectMapper objectMapper;
 
     @PostMapping("/")
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResponse<CreateCardResponse> createCard(@RequestBody CreateCardRequest request) {
+    public CompletableFuture<ApiResponse<CreateCardResponse>> createCard(@RequestBody CreateCardRequest request) {
         CreateCardCommand command = new CreateCardCommand(
                 null,
                 request.getAccountId(),
@@ -31,10 +65,130 @@ public class CardController {
                 request.getCreditLimit()
         );
 
-        CreateCardResponse result = cqrsBus.execute(command);
+        // chạy trên bus executor để giải phóng thread của Tomcat trong lúc chờ DB
+        return cqrsBus.<CreateCardCommand, CreateCardResponse>executeAsync(command)
+                .thenApply(result -> ApiResponse.<CreateCardResponse>builder()
+                        .result(result)
+                        .build());
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CompletableFuture<ApiResponse<CreateCardsBatchResponse>> createCards(@RequestBody CreateCardsBatchRequest request) {
+        List<CreateCardCommand> cards = request.getCards() == null ? List.of() : request.getCards().stream()
+                .map(card -> new CreateCardCommand(
+                        null,
+                        card.getAccountId(),
+                        card.getCardHolderName(),
+                        card.getCardType(),
+                        card.getCreditLimit()))
+                .toList();
+
+        return cqrsBus.<CreateCardsBatchCommand, CreateCardsBatchResponse>executeAsync(new CreateCardsBatchCommand(cards))
+                .thenApply(result -> ApiResponse.<CreateCardsBatchResponse>builder()
+                        .result(result)
+                        .build());
+    }
+
+    @PostMapping("/{cardId}/debit")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CompletableFuture<ApiResponse<CardBalanceResponse>> debit(@PathVariable String cardId,
+                                                                     @RequestBody BalanceChangeRequest request) {
+        return cqrsBus.<DebitCardCommand, CardBalanceResponse>executeAsync(new DebitCardCommand(cardId, request.getAmount()))
+                .thenApply(result -> ApiResponse.<CardBalanceResponse>builder()
+                        .result(result)
+                        .build());
+    }
+
+    @PostMapping("/{cardId}/credit")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CompletableFuture<ApiResponse<CardBalanceResponse>> credit(@PathVariable String cardId,
+                                                                      @RequestBody BalanceChangeRequest request) {
+        return cqrsBus.<CreditCardCommand, CardBalanceResponse>executeAsync(new CreditCardCommand(cardId, request.getAmount()))
+                .thenApply(result -> ApiResponse.<CardBalanceResponse>builder()
+                        .result(result)
+                        .build());
+    }
 
-        return ApiResponse.<CreateCardResponse>builder()
-                .result(result)
+    /**
+     * Sao kê biến động số dư của thẻ theo trang, đọc từ nhật ký số dư.
+     */
+    @GetMapping("/{cardId}/statement")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<CardStatementResponse> getStatement(@PathVariable String cardId,
+                                                           @RequestParam(required = false) Long after,
+                                                           @RequestParam(defaultValue = "100") int limit) {
+        CardStatementResponse response = cqrsBus.execute(new GetCardStatementQuery(cardId, after, limit));
+
+        return ApiResponse.<CardStatementResponse>builder()
+                .result(response)
                 .build();
     }
+
+    @GetMapping("/number/{cardNumber}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<CardView> getCardByCardNumber(@PathVariable String cardNumber) {
+        GetCardByCardNumberResponse response = cqrsBus.execute(new GetCardByCardNumberQuery(cardNumber));
+        if (response.getCard() == null) {
+            throw new AppException(ErrorCode.CARD_NOT_FOUND);
+        }
+
+        return ApiResponse.<CardView>builder()
+                .result(response.getCard())
+                .build();
+    }
+
+    @GetMapping("/account/{accountId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<List<CardView>> getCardsByAccount(@PathVariable String accountId) {
+        CardListResponse response = cqrsBus.execute(new GetCardsByAccountQuery(accountId));
+
+        return ApiResponse.<List<CardView>>builder()
+                .result(response.getCards())
+                .build();
+    }
+
+    @GetMapping("/status/{status}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<CardListResponse> getCardsByStatus(@PathVariable CardStatus status,
+                                                          @RequestParam(required = false) String after,
+                                                          @RequestParam(defaultValue = "100") int limit) {
+        CardListResponse response = cqrsBus.execute(new GetCardsByStatusQuery(status, after, limit));
+
+        return ApiResponse.<CardListResponse>builder()
+                .result(response)
+                .build();
+    }
+
+    /**
+     * Xuất toàn bộ thẻ theo trạng thái dạng NDJSON (mỗi dòng một thẻ), đọc bằng stream nên bộ nhớ không đổi.
+     */
+    @GetMapping(value = "/status/{status}/export", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportCardsByStatus(@PathVariable CardStatus status) {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.setRootValueSeparator(null);
+            ObjectWriter writer = objectMapper.writerFor(CardView.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            int[] written = {0};
+
+            cardService.exportByStatus(status, card -> {
+                try {
+                    writer.writeValue(generator, card);
+                    generator.writeRaw('\n');
+                    if (++written[0] % EXPORT_FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
 }
@@ -0,0 +1,14 @@
+package com.klb.transactionService.presentation.dto.CardRequest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateCardsBatchRequest {
+    private List<CreateCardRequest> cards;
+}
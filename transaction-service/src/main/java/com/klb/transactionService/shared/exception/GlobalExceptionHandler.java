@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 @Slf4j
@@ -21,6 +22,12 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(value = Exception.class)
     ResponseEntity<ApiResponse> handlingRuntimeException(RuntimeException exception) {
+        // rejections from the bus executor can arrive wrapped in CompletionException or HandlerExecutionException
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedExecutionException rejected) {
+                return handlingRejectedExecution(rejected);
+            }
+        }
         log.error("Exception: ", exception);
         ApiResponse apiResponse = new ApiResponse();
 
@@ -30,6 +37,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(apiResponse);
     }
 
+    @ExceptionHandler(value = RejectedExecutionException.class)
+    ResponseEntity<ApiResponse> handlingRejectedExecution(RejectedExecutionException exception) {
+        log.warn("Request rejected: {}", exception.getMessage());
+        ErrorCode errorCode = ErrorCode.SERVICE_BUSY;
+        ApiResponse apiResponse = new ApiResponse();
+
+        apiResponse.setCode(errorCode.getCode());
+        apiResponse.setMessage(errorCode.getMessage());
+
+        return ResponseEntity.status(errorCode.getStatusCode()).body(apiResponse);
+    }
+
     @ExceptionHandler(value = AppException.class)
     ResponseEntity<ApiResponse> handlingAppException(AppException exception) {
         ErrorCode errorCode = exception.getErrorCode();
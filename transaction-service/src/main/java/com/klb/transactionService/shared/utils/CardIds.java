@@ -0,0 +1,69 @@
+package com.klb.transactionService.shared.utils;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Card ids: time-ordered UUIDs (version 7 layout) kept as canonical strings in the domain and stored as
+ * {@code BINARY(16)}. The first 48 bits are the creation millisecond and the next 12 a per-millisecond sequence,
+ * so ids created by one instance sort in creation order and new rows append to the right-most leaf of the
+ * clustered index. The low 62 bits stay random.
+ */
+public final class CardIds {
+
+    /**
+     * Sorts before every id; start of a keyset scan.
+     */
+    public static final String MIN = "00000000-0000-0000-0000-000000000000";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_SEQUENCE = 0xFFF;
+
+    private static long lastMillis;
+    private static int sequence;
+
+    private CardIds() {}
+
+    public static String next() {
+        return next(System.currentTimeMillis()).toString();
+    }
+
+    static synchronized UUID next(long nowMillis) {
+        if (nowMillis > lastMillis) {
+            lastMillis = nowMillis;
+            // start low in the range so a busy millisecond still has room to count up
+            sequence = RANDOM.nextInt(MAX_SEQUENCE >> 1);
+        } else if (++sequence > MAX_SEQUENCE) {
+            // sequence exhausted or clock went back: borrow the next millisecond to stay monotonic
+            lastMillis++;
+            sequence = 0;
+        }
+        long msb = (lastMillis << 16) | 0x7000L | sequence;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Sorts before every id created at or after {@code millis}.
+     */
+    public static String lowerBound(long millis) {
+        return new UUID(millis << 16, 0).toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code cardId} is not a UUID
+     */
+    public static byte[] toBytes(String cardId) {
+        UUID uuid = UUID.fromString(cardId);
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static String fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+}
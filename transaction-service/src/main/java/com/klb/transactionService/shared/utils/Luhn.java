@@ -0,0 +1,39 @@
+package com.klb.transactionService.shared.utils;
+
+public final class Luhn {
+
+    private Luhn() {}
+
+    /**
+     * @return the Luhn check digit for the first {@code length} ASCII digits of {@code payload}
+     */
+    public static int checkDigit(char[] payload, int length) {
+        int sum = 0;
+        boolean doubleIt = true; // chữ số ngay bên trái check digit được nhân đôi
+        for (int i = length - 1; i >= 0; i--) {
+            int digit = payload[i] - '0';
+            if (doubleIt) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public static boolean isValid(String number) {
+        if (number == null || number.length() < 2) {
+            return false;
+        }
+        char[] digits = number.toCharArray();
+        for (char c : digits) {
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return checkDigit(digits, digits.length - 1) == digits[digits.length - 1] - '0';
+    }
+}
@@ -0,0 +1,25 @@
+package com.klb.transactionService.shared.utils;
+
+import java.math.BigDecimal;
+
+/**
+ * Money amounts as scaled {@code long}s (1 unit = 10^-SCALE), matching the DECIMAL(19, 4) balance columns.
+ * Balance arithmetic on the hot path works on these longs; BigDecimal only appears at the API edge.
+ */
+public final class MinorUnits {
+
+    public static final int SCALE = 4;
+
+    private MinorUnits() {}
+
+    /**
+     * @throws ArithmeticException if {@code amount} has more than {@link #SCALE} decimals or does not fit a long
+     */
+    public static long of(BigDecimal amount) {
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
@@ -0,0 +1,93 @@
+package db.migration;
+
+import com.klb.transactionService.shared.utils.CardIds;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gives every card created before the balance journal an OPENING movement, so the balance rebuilt from the
+ * journal matches {@code available_balance}. The amount is {@code available_balance} minus what the journal
+ * already holds for the card (snapshot plus tail), so debits and credits journaled since then still add up.
+ * <p>
+ * A Java migration because the card table keys on BINARY(16) while the journal keeps the canonical string, and
+ * the conversion is not portable SQL between MySQL and the H2 test database.
+ */
+@Slf4j
+public class V4__Card_opening_movements extends BaseJavaMigration {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private static final String CARD_PAGE_SQL = "SELECT card_id, available_balance, issuance_at FROM card "
+            + "WHERE card_id > ? ORDER BY card_id LIMIT ?";
+
+    private static final String OPENED_SQL = "SELECT DISTINCT card_id FROM card_balance_movement "
+            + "WHERE movement_type = 'OPENING' AND card_id IN (%s)";
+
+    private static final String SNAPSHOT_SQL = "SELECT card_id, balance FROM card_balance_snapshot WHERE card_id IN (%s)";
+
+    private static final String TAIL_SQL = "SELECT m.card_id, SUM(m.amount) AS total FROM card_balance_movement m "
+            + "LEFT JOIN card_balance_snapshot s ON s.card_id = m.card_id "
+            + "WHERE m.card_id IN (%s) AND m.movement_id > COALESCE(s.last_movement_id, 0) GROUP BY m.card_id";
+
+    private static final String INSERT_SQL = "INSERT INTO card_balance_movement (card_id, movement_type, amount, created_at) "
+            + "VALUES (?, 'OPENING', ?, ?)";
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        byte[] after = CardIds.toBytes(CardIds.MIN);
+        int inserted = 0;
+        while (true) {
+            List<CardRow> cards = jdbcTemplate.query(CARD_PAGE_SQL, (rs, rowNum) -> new CardRow(
+                    rs.getBytes("card_id"), rs.getBigDecimal("available_balance"), rs.getTimestamp("issuance_at")),
+                    after, PAGE_SIZE);
+            if (cards.isEmpty()) {
+                break;
+            }
+            after = cards.get(cards.size() - 1).cardId;
+
+            List<String> ids = cards.stream().map(card -> CardIds.fromBytes(card.cardId)).toList();
+            String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            Object[] args = ids.toArray();
+
+            Set<String> opened = new HashSet<>(jdbcTemplate.queryForList(OPENED_SQL.formatted(in), String.class, args));
+            Map<String, BigDecimal> journaled = new HashMap<>();
+            jdbcTemplate.query(SNAPSHOT_SQL.formatted(in), (RowCallbackHandler) rs ->
+                    journaled.merge(rs.getString("card_id"), rs.getBigDecimal("balance"), BigDecimal::add), args);
+            jdbcTemplate.query(TAIL_SQL.formatted(in), (RowCallbackHandler) rs ->
+                    journaled.merge(rs.getString("card_id"), rs.getBigDecimal("total"), BigDecimal::add), args);
+
+            List<Object[]> openings = new ArrayList<>();
+            for (int i = 0; i < cards.size(); i++) {
+                String cardId = ids.get(i);
+                if (!opened.contains(cardId)) {
+                    CardRow card = cards.get(i);
+                    BigDecimal amount = card.availableBalance.subtract(journaled.getOrDefault(cardId, BigDecimal.ZERO));
+                    openings.add(new Object[]{cardId, amount, card.issuanceAt});
+                }
+            }
+            if (!openings.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, openings);
+                inserted += openings.size();
+            }
+        }
+        log.info("Journaled the opening balance of {} cards", inserted);
+    }
+
+    private record CardRow(byte[] cardId, BigDecimal availableBalance, Timestamp issuanceAt) {
+    }
+}
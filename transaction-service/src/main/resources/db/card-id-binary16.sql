@@ -0,0 +1,23 @@
+-- Chuyển card.card_id từ VARCHAR(36) sang BINARY(16) khi bảng đang phục vụ (MySQL 8).
+-- Các id cũ (UUID ngẫu nhiên) giữ nguyên giá trị; id mới do ứng dụng sinh theo thời gian (CardIds).
+-- UUID_TO_BIN không swap có cùng thứ tự byte với CardIds.toBytes.
+-- Các bảng card_balance_movement, card_balance_snapshot, card_outbox vẫn lưu card_id dạng chuỗi, không cần đổi.
+
+-- 1. Expand: cột mới, thêm tức thì không khoá bảng
+ALTER TABLE card ADD COLUMN card_id_bin BINARY(16) NULL, ALGORITHM=INSTANT;
+
+-- 2. Thẻ do phiên bản ứng dụng cũ tạo trong lúc backfill cũng có card_id_bin
+CREATE TRIGGER card_id_bin_insert BEFORE INSERT ON card FOR EACH ROW
+    SET NEW.card_id_bin = UUID_TO_BIN(NEW.card_id);
+
+-- 3. Backfill theo từng lô nhỏ để không giữ khoá lâu; lặp lại đến khi ROW_COUNT() = 0
+UPDATE card SET card_id_bin = UUID_TO_BIN(card_id) WHERE card_id_bin IS NULL LIMIT 10000;
+
+-- 4. Contract: đổi khoá chính (rebuild in-place, DML vẫn chạy), ngay trước khi deploy phiên bản mới
+DROP TRIGGER card_id_bin_insert;
+ALTER TABLE card
+    DROP PRIMARY KEY,
+    DROP COLUMN card_id,
+    CHANGE COLUMN card_id_bin card_id BINARY(16) NOT NULL FIRST,
+    ADD PRIMARY KEY (card_id),
+    ALGORITHM=INPLACE, LOCK=NONE;
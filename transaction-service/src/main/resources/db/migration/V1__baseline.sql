@@ -0,0 +1,64 @@
+-- Schema do ddl-auto tạo trước khi chuyển sang Flyway; bảng thêm sau đó nằm ở V2 trở đi.
+-- DB cũ (card_id VARCHAR(36)) chạy db/card-id-binary16.sql trước, sau đó được baseline ở V1.
+
+CREATE TABLE card (
+    card_id           BINARY(16)     NOT NULL,
+    account_id        VARCHAR(255)   NOT NULL,
+    card_number       VARCHAR(32)    NOT NULL,
+    card_holder_name  VARCHAR(128)   NOT NULL,
+    cvv_number        VARCHAR(8)     NOT NULL,
+    card_type         VARCHAR(32)    NOT NULL,
+    card_status       VARCHAR(32)    NOT NULL,
+    issuance_at       DATETIME(6)    NOT NULL,
+    expiry_date       DATETIME(6)    NOT NULL,
+    available_balance DECIMAL(19, 4) NOT NULL,
+    credit_limit      DECIMAL(19, 4) NOT NULL,
+    PRIMARY KEY (card_id),
+    CONSTRAINT uk_card_card_number UNIQUE (card_number)
+);
+
+-- Tài khoản quản trị của service (ApplicationInitConfig)
+CREATE TABLE permission (
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    PRIMARY KEY (name)
+);
+
+CREATE TABLE role (
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    PRIMARY KEY (name)
+);
+
+CREATE TABLE role_permissions (
+    role_name        VARCHAR(255) NOT NULL,
+    permissions_name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (role_name, permissions_name),
+    CONSTRAINT fk_role_permissions_role FOREIGN KEY (role_name) REFERENCES role (name),
+    CONSTRAINT fk_role_permissions_permission FOREIGN KEY (permissions_name) REFERENCES permission (name)
+);
+
+CREATE TABLE `user` (
+    id             VARCHAR(255) NOT NULL,
+    username       VARCHAR(255),
+    password       VARCHAR(255),
+    email          VARCHAR(255),
+    email_verified BOOLEAN      NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_username UNIQUE (username),
+    CONSTRAINT uk_user_email UNIQUE (email)
+);
+
+CREATE TABLE user_roles (
+    user_id    VARCHAR(255) NOT NULL,
+    roles_name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (user_id, roles_name),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES `user` (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (roles_name) REFERENCES role (name)
+);
+
+CREATE TABLE invalidated_token (
+    id          VARCHAR(255) NOT NULL,
+    expiry_time DATETIME(6),
+    PRIMARY KEY (id)
+);
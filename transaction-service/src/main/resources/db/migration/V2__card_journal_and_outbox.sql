@@ -0,0 +1,39 @@
+-- Bảng do các thay đổi sau V1 thêm vào: sequence số thẻ, nhật ký số dư và outbox.
+-- DB được baseline ở V1 không chạy V1, nên các bảng này phải nằm ở bản sau V1.
+
+CREATE TABLE card_number_sequence (
+    bin        VARCHAR(8) NOT NULL,
+    next_value BIGINT     NOT NULL,
+    PRIMARY KEY (bin)
+);
+
+CREATE TABLE card_balance_movement (
+    movement_id   BIGINT         NOT NULL AUTO_INCREMENT,
+    card_id       VARCHAR(36)    NOT NULL,
+    movement_type VARCHAR(16)    NOT NULL,
+    amount        DECIMAL(19, 4) NOT NULL,
+    created_at    DATETIME(6)    NOT NULL,
+    PRIMARY KEY (movement_id)
+);
+CREATE INDEX idx_movement_card_id_id ON card_balance_movement (card_id, movement_id);
+
+CREATE TABLE card_balance_snapshot (
+    card_id          VARCHAR(36)    NOT NULL,
+    balance          DECIMAL(19, 4) NOT NULL,
+    last_movement_id BIGINT         NOT NULL,
+    taken_at         DATETIME(6)    NOT NULL,
+    PRIMARY KEY (card_id)
+);
+
+CREATE TABLE card_outbox (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    aggregate_id  VARCHAR(36)  NOT NULL,
+    partition_key VARCHAR(64)  NOT NULL,
+    event_type    VARCHAR(64)  NOT NULL,
+    topic         VARCHAR(128) NOT NULL,
+    payload       TEXT         NOT NULL,
+    created_at    DATETIME(6)  NOT NULL,
+    sent_at       DATETIME(6),
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_outbox_sent_at_id ON card_outbox (sent_at, id);
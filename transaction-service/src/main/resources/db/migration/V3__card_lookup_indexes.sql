@@ -0,0 +1,5 @@
+-- Tra cứu thẻ theo tài khoản (và trạng thái): findCardsByAccountId, findCardsByAccountIdAndStatus
+CREATE INDEX idx_card_account_status ON card (account_id, card_status);
+
+-- Phân trang keyset theo trạng thái: WHERE card_status = ? AND card_id > ? ORDER BY card_id
+CREATE INDEX idx_card_status_id ON card (card_status, card_id);
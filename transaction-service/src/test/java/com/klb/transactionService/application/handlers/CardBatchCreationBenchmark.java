@@ -0,0 +1,154 @@
+package com.klb.transactionService.application.handlers;
+
+import com.klb.transactionService.application.card.commands.card.CreateCardCommand;
+import com.klb.transactionService.application.card.commands.card.CreateCardsBatchCommand;
+import com.klb.transactionService.domain.enums.CardType;
+import com.klb.transactionService.domain.services.CardNumberAllocator;
+import com.klb.transactionService.domain.services.CardNumberFilter;
+import com.klb.transactionService.infrastructure.persistence.adapters.BalanceJournalRepositoryAdapter;
+import com.klb.transactionService.infrastructure.persistence.adapters.CardRepositoryAdapter;
+import com.klb.transactionService.infrastructure.persistence.mappers.CardMapper;
+import com.klb.transactionService.infrastructure.persistence.repositories.CardRepositoryImpl;
+import com.klb.transactionService.infrastructure.persistence.writebehind.CardWriteBehind;
+import org.flywaydb.core.Flyway;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Creates {@code cardCount} cards through {@link CreateCardsBatchCommandHandler} in one transaction, against the
+ * same cards created one {@link CreateCardCommandHandler} call and transaction at a time, as clients did before
+ * the batch endpoint. Both persist through {@link CardRepositoryAdapter} (JPA save per card, JDBC batch for the
+ * batch) and journal the opening balance. Card numbers come from an in-memory sequence so only the write path is
+ * measured. Runs on in-memory H2 with the Flyway schema, where a statement costs no network round trip, so the
+ * ratio is a lower bound of what MySQL shows.
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *   -Dexec.args="-cp %classpath org.openjdk.jmh.Main CardBatchCreationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardBatchCreationBenchmark {
+
+    @Param({"10000"})
+    int cardCount;
+
+    SingleConnectionDataSource dataSource;
+    LocalContainerEntityManagerFactoryBean factoryBean;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transaction;
+    CreateCardCommandHandler perCard;
+    CreateCardsBatchCommandHandler batch;
+    List<CreateCardCommand> items;
+
+    @Setup
+    public void setUp() {
+        // one reused connection: opening a new one per transaction would dominate the measurement
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL", "sa", "", true);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.klb.transactionService.infrastructure.persistence.entities");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.afterPropertiesSet();
+        JpaTransactionManager transactionManager = new JpaTransactionManager(factoryBean.getObject());
+        transactionManager.setDataSource(dataSource);
+        transaction = new TransactionTemplate(transactionManager);
+
+        CardRepositoryImpl jpaCardRepository = new JpaRepositoryFactory(
+                SharedEntityManagerCreator.createSharedEntityManager(factoryBean.getObject()))
+                .getRepository(CardRepositoryImpl.class);
+        CardNumberFilter cardNumberFilter = new CardNumberFilter() {
+            @Override
+            public boolean mightContain(String cardNumber) {
+                return true;
+            }
+
+            @Override
+            public void add(String cardNumber) {
+            }
+        };
+        // no write-behind: cards go straight to the database
+        CardRepositoryAdapter cardRepository = new CardRepositoryAdapter(jpaCardRepository, jdbcTemplate,
+                Mappers.getMapper(CardMapper.class), cardNumberFilter,
+                new StaticListableBeanFactory().getBeanProvider(CardWriteBehind.class));
+        BalanceJournalRepositoryAdapter balanceJournal = new BalanceJournalRepositoryAdapter(jdbcTemplate);
+        CardNumberAllocator cardNumberAllocator = new SequenceAllocator();
+        ApplicationEventPublisher eventPublisher = event -> {
+        };
+
+        perCard = new CreateCardCommandHandler(cardRepository, cardNumberAllocator, eventPublisher, balanceJournal);
+        batch = new CreateCardsBatchCommandHandler(cardRepository, cardNumberAllocator, eventPublisher, balanceJournal);
+        ReflectionTestUtils.setField(batch, "maxBatchSize", cardCount);
+
+        items = new ArrayList<>(cardCount);
+        for (int i = 0; i < cardCount; i++) {
+            items.add(new CreateCardCommand(null, "account-" + (i % 100), "NGUYEN VAN A", CardType.CREDIT,
+                    new BigDecimal("5000000")));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTables() {
+        jdbcTemplate.execute("TRUNCATE TABLE card_balance_movement");
+        jdbcTemplate.execute("TRUNCATE TABLE card");
+    }
+
+    @TearDown
+    public void tearDown() {
+        factoryBean.destroy();
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public void batchHandler(Blackhole blackhole) {
+        blackhole.consume(transaction.execute(status -> batch.handle(new CreateCardsBatchCommand(items))));
+    }
+
+    @Benchmark
+    public void handlerPerCard(Blackhole blackhole) {
+        for (CreateCardCommand item : items) {
+            blackhole.consume(transaction.execute(status -> perCard.handle(item)));
+        }
+    }
+
+    private static final class SequenceAllocator implements CardNumberAllocator {
+        private final AtomicLong next = new AtomicLong();
+
+        @Override
+        public String next() {
+            return String.format("970452%010d", next.getAndIncrement());
+        }
+
+        @Override
+        public List<String> next(int count) {
+            long first = next.getAndAdd(count);
+            return LongStream.range(first, first + count).mapToObj(n -> String.format("970452%010d", n)).toList();
+        }
+    }
+}
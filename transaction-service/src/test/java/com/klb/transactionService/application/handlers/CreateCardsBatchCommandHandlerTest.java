@@ -0,0 +1,121 @@
+package com.klb.transactionService.application.handlers;
+
+import com.klb.transactionService.application.card.commands.card.CreateCardCommand;
+import com.klb.transactionService.application.card.commands.card.CreateCardResponse;
+import com.klb.transactionService.application.card.commands.card.CreateCardsBatchCommand;
+import com.klb.transactionService.application.card.commands.card.CreateCardsBatchResponse;
+import com.klb.transactionService.domain.entities.BalanceMovement;
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.domain.enums.CardType;
+import com.klb.transactionService.domain.enums.MovementType;
+import com.klb.transactionService.domain.event.card.CardCreatedEvent;
+import com.klb.transactionService.domain.repositories.BalanceJournalRepository;
+import com.klb.transactionService.domain.repositories.CardRepository;
+import com.klb.transactionService.domain.services.CardNumberAllocator;
+import com.klb.transactionService.shared.utils.MinorUnits;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CreateCardsBatchCommandHandlerTest {
+
+    private final CardRepository cardRepository = mock(CardRepository.class);
+    private final CardNumberAllocator cardNumberAllocator = mock(CardNumberAllocator.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final BalanceJournalRepository balanceJournal = mock(BalanceJournalRepository.class);
+    private CreateCardsBatchCommandHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        when(cardNumberAllocator.next(anyInt())).thenAnswer(invocation -> {
+            List<String> numbers = new ArrayList<>();
+            for (int i = 0; i < (int) invocation.getArgument(0); i++) {
+                numbers.add("970452000000000" + i);
+            }
+            return numbers;
+        });
+        handler = new CreateCardsBatchCommandHandler(cardRepository, cardNumberAllocator, eventPublisher, balanceJournal);
+        ReflectionTestUtils.setField(handler, "maxBatchSize", 3);
+    }
+
+    @Test
+    void invalidItemsFailOnTheirOwnAndTheRestAreSavedInOneBatch() {
+        CreateCardsBatchResponse response = handler.handle(new CreateCardsBatchCommand(Arrays.asList(
+                item("first", "account-1", "100"),
+                item("no-account", " ", "100"),
+                null)));
+
+        assertEquals("SUCCESS", response.getStatus());
+        assertEquals(3, response.getTotal());
+        assertEquals(1, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        List<CreateCardResponse> results = response.getResults();
+        assertEquals("SUCCESS", results.get(0).getStatus());
+        assertEquals("9704520000000000", results.get(0).getCardNumber());
+        assertEquals("FAILED", results.get(1).getStatus());
+        assertEquals("no-account", results.get(1).getCardId());
+        assertEquals("Account ID is required", results.get(1).getMessage());
+        assertEquals("FAILED", results.get(2).getStatus());
+        assertEquals("Card request is required", results.get(2).getMessage());
+
+        verify(cardNumberAllocator).next(1);
+        verify(cardRepository, never()).save(any());
+        List<Card> saved = savedCards();
+        assertEquals(1, saved.size());
+        assertEquals(results.get(0).getCardId(), saved.get(0).getCardId());
+    }
+
+    @Test
+    void resultsFollowTheRequestOrderAndMatchTheSavedCards() {
+        CreateCardsBatchResponse response = handler.handle(new CreateCardsBatchCommand(List.of(
+                item("a", "account-1", "100"),
+                item("bad-limit", "account-1", "0"),
+                item("c", "account-2", "12.5"))));
+
+        List<Card> saved = savedCards();
+        assertEquals(List.of("account-1", "account-2"), saved.stream().map(Card::getAccountId).toList());
+        List<CreateCardResponse> results = response.getResults();
+        assertEquals(saved.get(0).getCardId(), results.get(0).getCardId());
+        assertEquals("FAILED", results.get(1).getStatus());
+        assertEquals(saved.get(1).getCardId(), results.get(2).getCardId());
+        assertEquals(saved.get(1).getCardNumber(), results.get(2).getCardNumber());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BalanceMovement>> movements = ArgumentCaptor.forClass(List.class);
+        verify(balanceJournal).appendAll(movements.capture());
+        assertEquals(List.of(MovementType.OPENING, MovementType.OPENING),
+                movements.getValue().stream().map(BalanceMovement::getType).toList());
+        assertEquals(MinorUnits.of(new BigDecimal("12.5")), movements.getValue().get(1).getAmountMinor());
+        verify(eventPublisher, times(2)).publishEvent(any(CardCreatedEvent.class));
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedBatchesAsAWhole() {
+        assertEquals("FAILED", handler.handle(new CreateCardsBatchCommand(List.of())).getStatus());
+        assertEquals("FAILED", handler.handle(new CreateCardsBatchCommand(List.of(
+                item("1", "a", "1"), item("2", "a", "1"), item("3", "a", "1"), item("4", "a", "1")))).getStatus());
+        verifyNoInteractions(cardRepository, cardNumberAllocator);
+    }
+
+    private List<Card> savedCards() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Card>> cards = ArgumentCaptor.forClass(List.class);
+        verify(cardRepository).saveAll(cards.capture());
+        return cards.getValue();
+    }
+
+    private static CreateCardCommand item(String requestId, String accountId, String creditLimit) {
+        return new CreateCardCommand(requestId, accountId, "NGUYEN VAN A", CardType.CREDIT, new BigDecimal(creditLimit));
+    }
+}
@@ -0,0 +1,72 @@
+package com.klb.transactionService.core.mediator;
+
+import com.klb.transactionService.core.abstractions.Handler;
+import com.klb.transactionService.core.abstractions.RequestData;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the map based {@link Registry#getHandler} lookup with the frozen {@link DispatchTable}.
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *   -Dexec.args="-cp %classpath org.openjdk.jmh.Main DispatchBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    @Param({"1", "8", "64"})
+    int handlerCount;
+
+    Registry registry;
+    DispatchTable table;
+    Class<? extends RequestData>[] requestTypes;
+    int cursor;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        registry = new Registry();
+        requestTypes = new Class[handlerCount];
+
+        Handler<?, ?> handler = request -> null;
+        for (int i = 0; i < handlerCount; i++) {
+            requestTypes[i] = (Class<? extends RequestData>) new ByteBuddy()
+                    .subclass(Object.class)
+                    .implement(RequestData.class)
+                    .name(DispatchBenchmark.class.getName() + "$Request" + i)
+                    .make()
+                    .load(getClass().getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                    .getLoaded();
+            registry.register(requestTypes[i], handler);
+        }
+
+        registry.freeze();
+        table = registry.getDispatchTable();
+    }
+
+    private Class<? extends RequestData> nextType() {
+        int index = cursor++;
+        if (cursor == requestTypes.length) {
+            cursor = 0;
+        }
+        return requestTypes[index];
+    }
+
+    @Benchmark
+    public void registryLookup(Blackhole blackhole) {
+        blackhole.consume(registry.getHandler(nextType()));
+    }
+
+    @Benchmark
+    public void dispatchTableLookup(Blackhole blackhole) {
+        blackhole.consume(table.get(nextType()));
+    }
+}
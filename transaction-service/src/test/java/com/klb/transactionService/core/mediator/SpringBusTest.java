@@ -0,0 +1,115 @@
+package com.klb.transactionService.core.mediator;
+
+import com.klb.transactionService.core.abstractions.RequestData;
+import com.klb.transactionService.core.abstractions.ResponseData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpringBusTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BusExecutor busExecutor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        busExecutor.destroy();
+    }
+
+    @Test
+    void requestsWaitingForAPermitDoNotHoldBusWorkers() throws Exception {
+        SpringBus bus = bus(2, 10, Duration.ofSeconds(5));
+        CompletableFuture<Done> first = bus.executeAsync(new Limited());
+        // blocks its own caller until the first one finishes, not a bus worker
+        CompletableFuture<CompletableFuture<Done>> second = CompletableFuture.supplyAsync(
+                () -> bus.executeAsync(new Limited()));
+
+        assertNotNull(bus.executeAsync(new Unlimited()).get(5, TimeUnit.SECONDS));
+        assertFalse(second.isDone());
+
+        release.countDown();
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        assertNotNull(second.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void saturatedLimitFailsFastWithoutHoldingTheCaller() throws Exception {
+        SpringBus bus = bus(2, 10, Duration.ofMillis(50));
+        CompletableFuture<Done> running = bus.executeAsync(new Limited());
+
+        CompletableFuture<Done> busy = bus.executeAsync(new Limited());
+        assertTrue(busy.isCompletedExceptionally(), "answered on the calling thread after the permit timeout");
+        CompletionException rejected = assertThrows(CompletionException.class, busy::join);
+        assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+        assertThrows(RejectedExecutionException.class, () -> bus.execute(new Limited()));
+        assertNotNull(bus.executeAsync(new Unlimited()).get(5, TimeUnit.SECONDS));
+
+        release.countDown();
+        assertNotNull(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(bus.executeAsync(new Limited()).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectedRequestsGiveTheirPermitBack() throws Exception {
+        SpringBus bus = bus(1, 1, Duration.ofSeconds(5));
+        CompletableFuture<Done> running = bus.executeAsync(new Unlimited.Blocking());
+        CompletableFuture<Done> queued = bus.executeAsync(new Unlimited.Blocking());
+
+        CompletionException rejected = assertThrows(CompletionException.class,
+                () -> bus.<Limited, Done>executeAsync(new Limited()).join());
+        assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        assertNotNull(bus.executeAsync(new Limited()).get(5, TimeUnit.SECONDS));
+    }
+
+    private SpringBus bus(int poolSize, int queueCapacity, Duration permitTimeout) {
+        BusExecutionProperties properties = new BusExecutionProperties();
+        properties.setMode(BusExecutionMode.PLATFORM);
+        properties.setPoolSize(poolSize);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setConcurrencyLimits(Map.of(Limited.class.getSimpleName(), 1));
+        properties.setPermitTimeout(permitTimeout);
+        busExecutor = new BusExecutor(properties);
+
+        Registry registry = new Registry();
+        registry.register(Limited.class, request -> awaitRelease());
+        registry.register(Unlimited.class, request -> new Done());
+        registry.register(Unlimited.Blocking.class, request -> awaitRelease());
+        registry.freeze();
+        return new SpringBus(registry, List.of(), busExecutor, new ConcurrencyLimits(properties));
+    }
+
+    private Done awaitRelease() {
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return new Done();
+    }
+
+    record Limited() implements RequestData {
+    }
+
+    record Unlimited() implements RequestData {
+        record Blocking() implements RequestData {
+        }
+    }
+
+    record Done() implements ResponseData {
+    }
+}
@@ -0,0 +1,121 @@
+package com.klb.transactionService.core.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    // one bucket is 1/32 of its power of two wide
+    private static final double MAX_RELATIVE_ERROR = 1.0 / 32;
+
+    @Test
+    void percentilesStayWithinOneBucketOfTheExactValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1_000_000, histogram.getTotalCount());
+        assertWithinOneBucket(500_000, histogram.getValueAtPercentile(50));
+        assertWithinOneBucket(990_000, histogram.getValueAtPercentile(99));
+        assertWithinOneBucket(999_000, histogram.getValueAtPercentile(99.9));
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100), "capped at the largest recorded value");
+    }
+
+    @Test
+    void aRareSlowValueShowsUpOnlyInTheTail() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 9_990; i++) {
+            histogram.record(1_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(250_000_000);
+        }
+
+        assertWithinOneBucket(1_000, histogram.getValueAtPercentile(50));
+        assertWithinOneBucket(1_000, histogram.getValueAtPercentile(99));
+        assertWithinOneBucket(1_000, histogram.getValueAtPercentile(99.9));
+        assertEquals(250_000_000, histogram.getValueAtPercentile(99.95));
+        assertEquals(250_000_000, histogram.getMaxValue());
+    }
+
+    @Test
+    void smallValuesAreExactAndEmptyOrNegativeInputIsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+
+        histogram.record(-5);
+        assertEquals(0, histogram.getMaxValue());
+        for (long value = 0; value < 32; value++) {
+            assertEquals(value, LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(value)));
+        }
+    }
+
+    @Test
+    void valuesUpToLongMaxValueLandInTheLastBucketsWithoutOverflow() {
+        for (long value : new long[]{1L << 40, (1L << 62) - 1, 1L << 62, Long.MAX_VALUE - 1, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(highest >= value, value + " reported as " + highest);
+            assertTrue(highest - value <= value * MAX_RELATIVE_ERROR, value + " reported as " + highest);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(Long.MAX_VALUE)));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    void concurrentRecordingLosesNoValues() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 100_000;
+        ExecutorService workers = Executors.newFixedThreadPool(threads + 1);
+        List<Future<?>> recorders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            recorders.add(workers.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(random.nextLong(1, 1_000_000));
+                }
+            }));
+        }
+        // a reader walking the buckets while they change must not fail
+        Future<?> reader = workers.submit(() -> {
+            while (recorders.stream().anyMatch(recorder -> !recorder.isDone())) {
+                assertTrue(histogram.getValueAtPercentile(99) <= histogram.getMaxValue());
+            }
+        });
+        for (Future<?> recorder : recorders) {
+            recorder.get(30, TimeUnit.SECONDS);
+        }
+        reader.get(30, TimeUnit.SECONDS);
+        workers.shutdown();
+
+        assertEquals((long) threads * perThread, histogram.getTotalCount());
+        assertTrue(histogram.getMaxValue() < 1_000_000);
+        assertWithinOneBucket(500_000, histogram.getValueAtPercentile(50), 0.01);
+    }
+
+    private static void assertWithinOneBucket(long expected, long actual) {
+        assertWithinOneBucket(expected, actual, 0);
+    }
+
+    // the reported value is the top of the bucket holding the exact one, plus any sampling tolerance
+    private static void assertWithinOneBucket(long expected, long actual, double tolerance) {
+        assertTrue(actual >= expected * (1 - tolerance), expected + " reported as " + actual);
+        assertTrue(actual <= expected * (1 + MAX_RELATIVE_ERROR + tolerance), expected + " reported as " + actual);
+    }
+}
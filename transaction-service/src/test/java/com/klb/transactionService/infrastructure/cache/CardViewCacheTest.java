@@ -0,0 +1,141 @@
+package com.klb.transactionService.infrastructure.cache;
+
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.enums.CardType;
+import com.klb.transactionService.domain.event.card.CardBalanceChangedEvent;
+import com.klb.transactionService.domain.event.card.CardCreatedEvent;
+import com.klb.transactionService.domain.readmodel.CardView;
+import com.klb.transactionService.infrastructure.persistence.writebehind.CardWriteBehind;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CardViewCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void servesLookupsFromTheCacheUntilAWriteCommits() {
+        CardViewCache cache = new CardViewCache(100, Duration.ofMinutes(10), (CardWriteBehind) null);
+
+        assertEquals(1, cache.getByAccountId("account-1", this::loadAccount).size());
+        assertEquals(1, cache.getByAccountId("account-1", this::loadAccount).size());
+        assertTrue(cache.getByCardNumber("9704520000000001", this::loadCard).isPresent());
+        assertTrue(cache.getByCardNumber("9704520000000001", this::loadCard).isPresent());
+        assertEquals(2, loads.get());
+
+        cache.onCardCreated(new CardCreatedEvent(this, card("account-1", "9704520000000002")));
+        cache.getByAccountId("account-1", this::loadAccount);
+        cache.getByCardNumber("9704520000000001", this::loadCard);
+        assertEquals(3, loads.get(), "only the account list is evicted by a new card");
+
+        cache.onBalanceChanged(new CardBalanceChangedEvent(this, "card-1", "account-1", "9704520000000001", -100));
+        cache.getByAccountId("account-1", this::loadAccount);
+        cache.getByCardNumber("9704520000000001", this::loadCard);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void missingCardsAreNotCached() {
+        CardViewCache cache = new CardViewCache(100, Duration.ofMinutes(10), (CardWriteBehind) null);
+
+        assertTrue(cache.getByCardNumber("9704520000000009", number -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+        assertTrue(cache.getByCardNumber("9704520000000009", this::loadCard).isPresent());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void anEvictionDuringALoadDropsWhatTheLoadRead() throws Exception {
+        CardViewCache cache = new CardViewCache(100, Duration.ofMinutes(10), (CardWriteBehind) null);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+
+        CompletableFuture<List<CardView>> stale = CompletableFuture.supplyAsync(() ->
+                cache.getByAccountId("account-1", accountId -> {
+                    loading.countDown();
+                    await(committed);
+                    return List.of();
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> eviction = CompletableFuture.runAsync(() ->
+                cache.onCardCreated(new CardCreatedEvent(this, card("account-1", "9704520000000001"))));
+        committed.countDown();
+
+        assertEquals(List.of(), stale.get(5, TimeUnit.SECONDS));
+        eviction.get(5, TimeUnit.SECONDS);
+        assertEquals(1, cache.getByAccountId("account-1", this::loadAccount).size());
+    }
+
+    @Test
+    void readsOfCardsStillPendingInWriteBehindAreNotCached() {
+        List<Card> pending = new ArrayList<>(List.of(card("account-1", "9704520000000002")));
+        CardWriteBehind writeBehind = mock(CardWriteBehind.class);
+        when(writeBehind.hasPending(any())).thenAnswer(invocation -> {
+            Predicate<Card> predicate = invocation.getArgument(0);
+            return pending.stream().anyMatch(predicate);
+        });
+        CardViewCache cache = new CardViewCache(100, Duration.ofMinutes(10), writeBehind);
+
+        // the database does not have the pending card yet, so this list must not stay cached
+        assertEquals(1, cache.getByAccountId("account-1", this::loadAccount).size());
+        assertEquals(1, cache.getByAccountId("account-1", this::loadAccount).size());
+        assertEquals(1, cache.getByAccountId("account-2", this::loadAccount).size());
+        assertEquals(1, cache.getByAccountId("account-2", this::loadAccount).size());
+        assertEquals(3, loads.get());
+
+        pending.clear();
+        cache.getByAccountId("account-1", this::loadAccount);
+        cache.getByAccountId("account-1", this::loadAccount);
+        assertEquals(4, loads.get());
+    }
+
+    private List<CardView> loadAccount(String accountId) {
+        loads.incrementAndGet();
+        return List.of(view(accountId, "9704520000000001"));
+    }
+
+    private Optional<CardView> loadCard(String cardNumber) {
+        loads.incrementAndGet();
+        return Optional.of(view("account-1", cardNumber));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static CardView view(String accountId, String cardNumber) {
+        return new CardView("card-" + cardNumber, accountId, cardNumber, "NGUYEN VAN A", CardType.values()[0],
+                CardStatus.ACTIVE, new Date(), new Date(), BigDecimal.TEN, BigDecimal.TEN);
+    }
+
+    private static Card card(String accountId, String cardNumber) {
+        return Card.builder()
+                .cardId("card-" + cardNumber)
+                .accountId(accountId)
+                .cardNumber(cardNumber)
+                .cardStatus(CardStatus.ACTIVE)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.klb.transactionService.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.enums.CardType;
+import com.klb.transactionService.domain.event.card.CardBalanceChangedEvent;
+import com.klb.transactionService.domain.event.card.CardCreatedEvent;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private OutboxWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE card_outbox (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "aggregate_id VARCHAR(36) NOT NULL, partition_key VARCHAR(64) NOT NULL, event_type VARCHAR(64) NOT NULL, "
+                + "topic VARCHAR(128) NOT NULL, payload TEXT NOT NULL, created_at TIMESTAMP NOT NULL, sent_at TIMESTAMP)");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        writer = new OutboxWriter(jdbcTemplate, new ObjectMapper(), "card-events");
+    }
+
+    @Test
+    void outboxRowsCommitAndRollBackWithTheirTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < 3; i++) {
+                writer.onCardCreated(new CardCreatedEvent(this, card("account-" + i)));
+            }
+            assertEquals(0, countRows(), "rows are buffered until commit");
+        });
+        assertEquals(3, countRows());
+
+        transaction.executeWithoutResult(status -> {
+            writer.onCardCreated(new CardCreatedEvent(this, card("account-9")));
+            status.setRollbackOnly();
+        });
+        assertEquals(3, countRows());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relaysGroupedByAccountAndKeepsFailedRowsUnsent() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            writer.onCardCreated(new CardCreatedEvent(this, card("account-a")));
+            writer.onCardCreated(new CardCreatedEvent(this, card("account-b")));
+            writer.onCardCreated(new CardCreatedEvent(this, card("account-a")));
+            writer.onCardCreated(new CardCreatedEvent(this, card("account-c")));
+        });
+
+        KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+        List<String> keys = new ArrayList<>();
+        List<String> outboxIds = new ArrayList<>();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            ProducerRecord<String, String> record = invocation.getArgument(0);
+            keys.add(record.key());
+            outboxIds.add(new String(record.headers().lastHeader("outboxId").value(), StandardCharsets.UTF_8));
+            return "account-c".equals(record.key())
+                    ? CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"))
+                    : CompletableFuture.completedFuture(null);
+        });
+
+        OutboxRelay relay = new OutboxRelay(jdbcTemplate, kafkaTemplate, transactionManager,
+                10, Duration.ofSeconds(1), Duration.ofDays(1));
+
+        assertEquals(3, relay.relayBatch());
+        assertEquals(List.of("account-a", "account-a", "account-b", "account-c"), keys);
+        assertEquals(List.of("1", "3", "2", "4"), outboxIds);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM card_outbox WHERE sent_at IS NULL AND partition_key = 'account-c'", Integer.class));
+        verify(kafkaTemplate).flush();
+    }
+
+    @Test
+    void balanceChangesCommitAndRollBackWithTheirTransaction() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status ->
+                writer.onBalanceChanged(new CardBalanceChangedEvent(this, "card-1", "account-a", "9704", -125_000)));
+        transaction.executeWithoutResult(status -> {
+            writer.onBalanceChanged(new CardBalanceChangedEvent(this, "card-1", "account-a", "9704", 500));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, countRows());
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT aggregate_id, partition_key, event_type, payload FROM card_outbox");
+        assertEquals("card-1", row.get("AGGREGATE_ID"));
+        assertEquals("account-a", row.get("PARTITION_KEY"));
+        assertEquals(OutboxWriter.CARD_BALANCE_CHANGED, row.get("EVENT_TYPE"));
+        CardEventMessage message = new ObjectMapper().readValue((String) row.get("PAYLOAD"), CardEventMessage.class);
+        assertEquals(0, new BigDecimal("-12.50").compareTo(message.getBalanceDelta()));
+    }
+
+    private int countRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM card_outbox", Integer.class);
+    }
+
+    private static Card card(String accountId) {
+        return Card.builder()
+                .cardId(UUID.randomUUID().toString())
+                .accountId(accountId)
+                .cardType(CardType.values()[0])
+                .cardStatus(CardStatus.PENDING)
+                .availableBalance(BigDecimal.TEN)
+                .creditLimit(BigDecimal.TEN)
+                .build();
+    }
+}
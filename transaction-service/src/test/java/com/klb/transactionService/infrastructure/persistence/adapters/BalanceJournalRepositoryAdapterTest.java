@@ -0,0 +1,100 @@
+package com.klb.transactionService.infrastructure.persistence.adapters;
+
+import com.klb.transactionService.domain.entities.BalanceMovement;
+import com.klb.transactionService.domain.enums.MovementType;
+import com.klb.transactionService.shared.utils.CardIds;
+import com.klb.transactionService.shared.utils.MinorUnits;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceJournalRepositoryAdapterTest {
+
+    private static final String CARD_1 = CardIds.next();
+    private static final String CARD_2 = CardIds.next();
+
+    private JdbcTemplate jdbcTemplate;
+    private BalanceJournalRepositoryAdapter journal;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE card_balance_movement (movement_id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "card_id VARCHAR(36) NOT NULL, movement_type VARCHAR(16) NOT NULL, amount DECIMAL(19, 4) NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE card_balance_snapshot (card_id VARCHAR(36) PRIMARY KEY, "
+                + "balance DECIMAL(19, 4) NOT NULL, last_movement_id BIGINT NOT NULL, taken_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE card (card_id BINARY(16) PRIMARY KEY)");
+        jdbcTemplate.update("INSERT INTO card (card_id) VALUES (?), (?)", CardIds.toBytes(CARD_1), CardIds.toBytes(CARD_2));
+        journal = new BalanceJournalRepositoryAdapter(jdbcTemplate);
+    }
+
+    @Test
+    void rebuildsBalanceFromSnapshotPlusTail() {
+        Date past = new Date(System.currentTimeMillis() - 60_000);
+        List<BalanceMovement> movements = new ArrayList<>();
+        movements.add(movement(CARD_1, MovementType.OPENING, "1000", past));
+        for (int i = 0; i < 150; i++) {
+            movements.add(movement(CARD_1, MovementType.DEBIT, "-1.25", past));
+        }
+        movements.add(movement(CARD_2, MovementType.OPENING, "50", past));
+        journal.appendAll(movements);
+
+        long expected = MinorUnits.of(new BigDecimal("812.5"));
+        assertEquals(expected, journal.rebuildBalance(CARD_1));
+        assertEquals(152, journal.lastMovementId());
+        assertEquals(List.of(CARD_1), journal.findCardsToSnapshot(0, 152, 100));
+        // only cards with a movement in the scanned id range are considered
+        assertTrue(journal.findCardsToSnapshot(151, 152, 1).contains(CARD_2));
+        assertFalse(journal.findCardsToSnapshot(151, 152, 1).contains(CARD_1));
+
+        long lastMovementId = journal.snapshot(CARD_1);
+        assertEquals(151, lastMovementId);
+        assertTrue(journal.findCardsToSnapshot(0, 152, 100).isEmpty());
+        assertEquals(expected, journal.rebuildBalance(CARD_1));
+
+        journal.appendAll(List.of(movement(CARD_1, MovementType.CREDIT, "7.5", new Date())));
+        assertEquals(expected + MinorUnits.of(new BigDecimal("7.5")), journal.rebuildBalance(CARD_1));
+        assertEquals(153, journal.snapshot(CARD_1));
+        assertEquals(expected + MinorUnits.of(new BigDecimal("7.5")), journal.rebuildBalance(CARD_1));
+        assertEquals(MinorUnits.of(new BigDecimal("50")), journal.rebuildBalance(CARD_2));
+    }
+
+    @Test
+    void purgesOnlyMovementsCoveredBySnapshot() {
+        Date past = new Date(System.currentTimeMillis() - 60_000);
+        journal.appendAll(List.of(
+                movement(CARD_1, MovementType.OPENING, "100", past),
+                movement(CARD_1, MovementType.DEBIT, "-40", past)));
+        journal.snapshot(CARD_1);
+        journal.appendAll(List.of(movement(CARD_1, MovementType.DEBIT, "-10", past)));
+
+        assertEquals(2, journal.purgeCompacted(CARD_1, new Date()));
+        assertEquals(MinorUnits.of(new BigDecimal("50")), journal.rebuildBalance(CARD_1));
+
+        List<BalanceMovement> remaining = journal.findMovements(CARD_1, null, 10);
+        assertEquals(1, remaining.size());
+        assertEquals(MovementType.DEBIT, remaining.get(0).getType());
+        assertTrue(journal.findMovements(CARD_1, remaining.get(0).getMovementId(), 10).isEmpty());
+    }
+
+    private static BalanceMovement movement(String cardId, MovementType type, String amount, Date createdAt) {
+        return BalanceMovement.builder()
+                .cardId(cardId)
+                .type(type)
+                .amountMinor(MinorUnits.of(new BigDecimal(amount)))
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.klb.transactionService.infrastructure.persistence.adapters;
+
+import com.klb.transactionService.domain.services.CardNumberFilter;
+import com.klb.transactionService.infrastructure.persistence.mappers.CardMapper;
+import com.klb.transactionService.infrastructure.persistence.repositories.CardRepositoryImpl;
+import com.klb.transactionService.infrastructure.persistence.writebehind.CardWriteBehind;
+import com.klb.transactionService.shared.utils.CardIds;
+import com.klb.transactionService.shared.utils.MinorUnits;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class CardRepositoryAdapterBalanceTest {
+
+    private static final int DEBITS = 100_000;
+    private static final int FUNDED_DEBITS = 60_000;
+
+    private JdbcTemplate jdbcTemplate;
+    private CardRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE card (card_id BINARY(16) PRIMARY KEY, card_status VARCHAR(32) NOT NULL, "
+                + "available_balance DECIMAL(19, 4) NOT NULL)");
+        adapter = new CardRepositoryAdapter(mock(CardRepositoryImpl.class), jdbcTemplate,
+                Mappers.getMapper(CardMapper.class), mock(CardNumberFilter.class), (CardWriteBehind) null);
+    }
+
+    @Test
+    void concurrentDebitsNeverOverdraw() throws InterruptedException {
+        String cardId = CardIds.next();
+        jdbcTemplate.update("INSERT INTO card VALUES (?, 'ACTIVE', ?)", CardIds.toBytes(cardId), new BigDecimal(FUNDED_DEBITS));
+        long oneUnit = MinorUnits.of(BigDecimal.ONE);
+
+        AtomicInteger succeeded = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < DEBITS; i++) {
+            workers.submit(() -> {
+                if (adapter.debitIfSufficient(cardId, oneUnit)) {
+                    succeeded.incrementAndGet();
+                }
+            });
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(2, TimeUnit.MINUTES));
+
+        assertEquals(FUNDED_DEBITS, succeeded.get());
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(cardId)));
+    }
+
+    @Test
+    void debitIsDeclinedForBlockedCardAndCreditIsApplied() {
+        String cardId = CardIds.next();
+        jdbcTemplate.update("INSERT INTO card VALUES (?, 'BLOCKED', 100)", CardIds.toBytes(cardId));
+
+        assertFalse(adapter.debitIfSufficient(cardId, MinorUnits.of(BigDecimal.ONE)));
+        assertTrue(adapter.credit(cardId, MinorUnits.of(new BigDecimal("0.0001"))));
+        assertFalse(adapter.credit(CardIds.next(), MinorUnits.of(BigDecimal.ONE)));
+        assertEquals(0, new BigDecimal("100.0001").compareTo(balanceOf(cardId)));
+        assertFalse(adapter.compareAndSetBalance(cardId, MinorUnits.of(new BigDecimal("100.0001")), 0),
+                "compare-and-set must not touch a blocked card");
+    }
+
+    private BigDecimal balanceOf(String cardId) {
+        return jdbcTemplate.queryForObject("SELECT available_balance FROM card WHERE card_id = ?", BigDecimal.class,
+                CardIds.toBytes(cardId));
+    }
+}
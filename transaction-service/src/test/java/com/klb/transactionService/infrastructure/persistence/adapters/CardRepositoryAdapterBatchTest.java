@@ -0,0 +1,77 @@
+package com.klb.transactionService.infrastructure.persistence.adapters;
+
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.enums.CardType;
+import com.klb.transactionService.domain.services.CardNumberFilter;
+import com.klb.transactionService.infrastructure.persistence.mappers.CardMapper;
+import com.klb.transactionService.infrastructure.persistence.repositories.CardRepositoryImpl;
+import com.klb.transactionService.infrastructure.persistence.writebehind.CardWriteBehind;
+import com.klb.transactionService.shared.utils.CardIds;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CardRepositoryAdapterBatchTest {
+
+    private static final int CARDS = 2_500;
+
+    @Test
+    void saveAllInsertsEveryCardInJdbcBatchesWithoutTheEntityPath() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        JdbcTemplate jdbcTemplate = spy(new JdbcTemplate(dataSource));
+        CardRepositoryImpl jpaCardRepository = mock(CardRepositoryImpl.class);
+        CardNumberFilter cardNumberFilter = mock(CardNumberFilter.class);
+        CardRepositoryAdapter adapter = new CardRepositoryAdapter(jpaCardRepository, jdbcTemplate,
+                Mappers.getMapper(CardMapper.class), cardNumberFilter, (CardWriteBehind) null);
+
+        List<Card> cards = new ArrayList<>(CARDS);
+        for (int i = 0; i < CARDS; i++) {
+            cards.add(card(String.format("9704520%09d", i)));
+        }
+        adapter.saveAll(cards);
+
+        // one call, chunked by the template into batches of BATCH_SIZE statements
+        verify(jdbcTemplate).batchUpdate(anyString(), eq(cards), eq(CardRepositoryAdapter.BATCH_SIZE), any());
+        verifyNoInteractions(jpaCardRepository);
+        verify(cardNumberFilter, times(CARDS)).add(anyString());
+
+        // ids are time-ordered, so the insertion order comes back by primary key
+        List<String> stored = jdbcTemplate.queryForList("SELECT card_number FROM card ORDER BY card_id", String.class);
+        assertEquals(cards.stream().map(Card::getCardNumber).toList(), stored);
+        assertEquals(cards.get(CARDS - 1).getCardId(), CardIds.fromBytes(jdbcTemplate.queryForObject(
+                "SELECT card_id FROM card WHERE card_number = ?", byte[].class, cards.get(CARDS - 1).getCardNumber())));
+    }
+
+    private static Card card(String cardNumber) {
+        return Card.builder()
+                .cardId(CardIds.next())
+                .accountId("account-1")
+                .cardNumber(cardNumber)
+                .cardHolderName("NGUYEN VAN A")
+                .cvvNumber("123")
+                .cardType(CardType.CREDIT)
+                .cardStatus(CardStatus.PENDING)
+                .issuanceAt(new Date())
+                .expiryDate(new Date())
+                .availableBalance(BigDecimal.TEN)
+                .creditLimit(BigDecimal.TEN)
+                .build();
+    }
+}
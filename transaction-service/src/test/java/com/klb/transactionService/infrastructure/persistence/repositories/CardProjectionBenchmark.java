@@ -0,0 +1,102 @@
+package com.klb.transactionService.infrastructure.persistence.repositories;
+
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.infrastructure.persistence.mappers.CardMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the list query path the adapter uses, a JPQL constructor projection straight into domain cards
+ * ({@link CardRepositoryImpl#DOMAIN_CARD_SELECT}), with loading managed entities and mapping them with
+ * {@link CardMapper}. Each invocation runs in a fresh persistence context, so the entity path pays for
+ * the managed instances and their dirty-checking snapshots. Runs on H2 in MySQL mode with the Flyway schema.
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *   -Dexec.args="-cp %classpath org.openjdk.jmh.Main CardProjectionBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardProjectionBenchmark {
+
+    private static final String ACCOUNT_ID = "account-0";
+
+    private static final String ENTITY_SELECT = "SELECT c FROM Card c WHERE c.accountId = :accountId";
+
+    @Param({"100", "10000"})
+    int cardCount;
+
+    SingleConnectionDataSource dataSource;
+    LocalContainerEntityManagerFactoryBean factoryBean;
+    EntityManagerFactory entityManagerFactory;
+    CardMapper cardMapper;
+
+    @Setup
+    public void setUp() {
+        // one reused connection: opening a new one per query would dominate the measurement
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL", "sa", "", true);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        // the account under test plus as many cards spread over other accounts
+        new JdbcTemplate(dataSource).update("INSERT INTO card (card_id, account_id, card_number, card_holder_name, "
+                + "cvv_number, card_type, card_status, issuance_at, expiry_date, available_balance, credit_limit) "
+                + "SELECT CAST(LPAD(X, 16, '0') AS BINARY(16)), CASEWHEN(X <= ?, ?, CONCAT('account-', X)), "
+                + "LPAD(X, 16, '0'), 'NGUYEN VAN A', '123', 'CREDIT', 'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, "
+                + "100, 100 FROM SYSTEM_RANGE(1, ?)", cardCount, ACCOUNT_ID, cardCount * 2);
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.klb.transactionService.infrastructure.persistence.entities");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+        cardMapper = Mappers.getMapper(CardMapper.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        factoryBean.destroy();
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public void constructorProjection(Blackhole blackhole) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            blackhole.consume(entityManager
+                    .createQuery(CardRepositoryImpl.DOMAIN_CARD_SELECT + "WHERE c.accountId = :accountId", Card.class)
+                    .setParameter("accountId", ACCOUNT_ID)
+                    .getResultList());
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public void entityLoadAndMap(Blackhole blackhole) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<com.klb.transactionService.infrastructure.persistence.entities.Card> entities = entityManager
+                    .createQuery(ENTITY_SELECT, com.klb.transactionService.infrastructure.persistence.entities.Card.class)
+                    .setParameter("accountId", ACCOUNT_ID)
+                    .getResultList();
+            blackhole.consume(cardMapper.toDomain(entities));
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.klb.transactionService.infrastructure.persistence.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Applies the Flyway migrations to H2 in MySQL mode, seeds the card table and checks with EXPLAIN that the
+ * card lookups run on the V2 indexes instead of scanning the table. Seeds 500k rows by default; the full-size
+ * check is {@code -Dcard.query-plan.rows=5000000} (about four minutes).
+ */
+class CardQueryPlanTest {
+
+    private static final long ROWS = Long.getLong("card.query-plan.rows", 500_000L);
+
+    private static final String CARD_COLUMNS = "card_id, account_id, card_number, card_holder_name, cvv_number, "
+            + "card_type, card_status, issuance_at, expiry_date, available_balance, credit_limit";
+
+    @TempDir
+    static Path dataDir;
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void seed() {
+        // file-backed so millions of rows do not have to fit in the test heap
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:" + dataDir.resolve("cards") + ";MODE=MySQL", "sa", "", true);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO card (" + CARD_COLUMNS + ") "
+                + "SELECT CAST(LPAD(X, 16, '0') AS BINARY(16)), CONCAT('account-', MOD(X, ?)), LPAD(X, 16, '0'), "
+                + "'NGUYEN VAN A', '123', 'CREDIT', CASEWHEN(MOD(X, 10) = 0, 'BLOCKED', 'ACTIVE'), "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 100, 100 FROM SYSTEM_RANGE(1, ?)", ROWS / 4, ROWS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void findCardsByAccountIdAndStatusUsesAccountStatusIndex() {
+        String plan = explain("SELECT " + CARD_COLUMNS + " FROM card WHERE account_id = ? AND card_status = ?",
+                "account-42", "ACTIVE");
+
+        assertFalse(plan.contains("tableScan"), plan);
+        assertTrue(plan.contains("IDX_CARD_ACCOUNT_STATUS: ACCOUNT_ID = ?1 AND CARD_STATUS = ?2"), plan);
+    }
+
+    @Test
+    void findCardsByAccountIdUsesAccountStatusIndexPrefix() {
+        String plan = explain("SELECT " + CARD_COLUMNS + " FROM card WHERE account_id = ?", "account-42");
+
+        assertFalse(plan.contains("tableScan"), plan);
+        assertTrue(plan.contains("IDX_CARD_ACCOUNT_STATUS: ACCOUNT_ID = ?1"), plan);
+    }
+
+    @Test
+    void findCardPageByCardStatusSeeksPastLastCardId() {
+        String plan = explain("SELECT " + CARD_COLUMNS + " FROM card WHERE card_status = ? AND card_id > ? "
+                + "ORDER BY card_id LIMIT ?", "ACTIVE", new byte[16], 100);
+
+        assertFalse(plan.contains("tableScan"), plan);
+        assertTrue(plan.contains("IDX_CARD_STATUS_ID: CARD_STATUS = ?1 AND CARD_ID > ?2"), plan);
+    }
+
+    private static String explain(String sql, Object... args) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args).replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,86 @@
+package com.klb.transactionService.infrastructure.persistence.repositories;
+
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.enums.CardType;
+import com.klb.transactionService.infrastructure.persistence.entities.Card;
+import com.klb.transactionService.shared.utils.CardIds;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class CardRepositoryImplTest {
+
+    @Autowired
+    private CardRepositoryImpl cardRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void newCardIsPersistedWithBinaryIdAndReadBack() {
+        String cardId = CardIds.next();
+
+        Card saved = cardRepository.save(card(cardId, 0));
+        assertTrue(entityManager.contains(saved), "persist keeps the instance managed, merge would copy it");
+        entityManager.flush();
+        assertFalse(saved.isNew());
+        entityManager.clear();
+
+        byte[] stored = jdbcTemplate.queryForObject("SELECT card_id FROM card", byte[].class);
+        assertEquals(16, stored.length);
+        assertEquals(cardId, CardIds.fromBytes(stored));
+        assertEquals(cardId, cardRepository.findById(cardId).orElseThrow().getCardId());
+    }
+
+    @Test
+    void keysetPagesFollowCreationOrder() {
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String cardId = CardIds.next();
+            created.add(cardId);
+            cardRepository.save(card(cardId, i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> firstPage = cardRepository.findCardPageByCardStatus(CardStatus.ACTIVE, CardIds.MIN, PageRequest.of(0, 3))
+                .stream().map(com.klb.transactionService.domain.entities.Card::getCardId).toList();
+        List<String> secondPage = cardRepository.findCardPageByCardStatus(CardStatus.ACTIVE, firstPage.get(2), PageRequest.of(0, 3))
+                .stream().map(com.klb.transactionService.domain.entities.Card::getCardId).toList();
+
+        assertEquals(created.subList(0, 3), firstPage);
+        assertEquals(created.subList(3, 5), secondPage);
+    }
+
+    private static Card card(String cardId, int n) {
+        Card card = Card.builder()
+                .cardId(cardId)
+                .accountId("account-1")
+                .cardNumber("970452000000000" + n)
+                .cardHolderName("NGUYEN VAN A")
+                .cvvNumber("123")
+                .cardType(CardType.CREDIT)
+                .cardStatus(CardStatus.ACTIVE)
+                .issuanceAt(new Date())
+                .expiryDate(new Date())
+                .availableBalance(new BigDecimal("100"))
+                .creditLimit(new BigDecimal("100"))
+                .build();
+        card.setNewCard(true);
+        return card;
+    }
+}
@@ -0,0 +1,216 @@
+package com.klb.transactionService.infrastructure.persistence.writebehind;
+
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.enums.CardType;
+import com.klb.transactionService.shared.utils.CardIds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardWriteBehindTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE card (card_id BINARY(16) PRIMARY KEY, account_id VARCHAR(255) NOT NULL, "
+                + "card_number VARCHAR(32) NOT NULL UNIQUE, card_holder_name VARCHAR(128) NOT NULL, "
+                + "cvv_number VARCHAR(8) NOT NULL, card_type VARCHAR(32) NOT NULL, card_status VARCHAR(32) NOT NULL, "
+                + "issuance_at TIMESTAMP NOT NULL, expiry_date TIMESTAMP NOT NULL, "
+                + "available_balance DECIMAL(19, 4) NOT NULL, credit_limit DECIMAL(19, 4) NOT NULL)");
+    }
+
+    @Test
+    void coalescesRepeatedSavesIntoOneRowWrite() throws Exception {
+        CardWriteBehind writeBehind = start(DataSize.ofMegabytes(1));
+
+        writeBehind.write(List.of(card("c1", "100")));
+        writeBehind.write(List.of(card("c1", "90")));
+        writeBehind.write(List.of(card("c1", "75.5"), card("c2", "10")));
+        assertEquals(2, writeBehind.pendingCount());
+        assertEquals(new BigDecimal("75.5"), writeBehind.findPending(id("c1")).orElseThrow().getAvailableBalance());
+
+        writeBehind.flush();
+        assertEquals(0, writeBehind.pendingCount());
+        assertEquals(0, new BigDecimal("75.5").compareTo(balanceOf("c1")));
+        assertEquals(0, new BigDecimal("10").compareTo(balanceOf("c2")));
+        writeBehind.destroy();
+    }
+
+    @Test
+    void replaysLoggedCardsAfterCrash() throws Exception {
+        CardWriteBehind crashed = start(DataSize.ofMegabytes(1));
+        crashed.write(List.of(card("c1", "100"), card("c2", "20")));
+        crashed.write(List.of(card("c1", "60")));
+        assertEquals(0, rowCount());
+
+        // no destroy(): the process died before the flusher ran
+        CardWriteBehind restarted = start(DataSize.ofMegabytes(1));
+        assertEquals(2, rowCount());
+        assertEquals(0, new BigDecimal("60").compareTo(balanceOf("c1")));
+        restarted.destroy();
+    }
+
+    @Test
+    void rolledBackSavesAreNeitherFlushedNorReplayed() throws Exception {
+        CardWriteBehind writeBehind = start(DataSize.ofMegabytes(1));
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        transaction.executeWithoutResult(status -> writeBehind.write(List.of(card("kept", "1"))));
+        transaction.executeWithoutResult(status -> {
+            writeBehind.write(List.of(card("dropped", "1")));
+            assertTrue(writeBehind.findPending(id("dropped")).isEmpty(), "not visible before commit");
+            status.setRollbackOnly();
+        });
+        assertTrue(writeBehind.findPending(id("kept")).isPresent());
+        assertTrue(writeBehind.findPending(id("dropped")).isEmpty());
+
+        CardWriteBehind restarted = start(DataSize.ofMegabytes(1));
+        assertEquals(List.of(id("kept")), jdbcTemplate.queryForList("SELECT card_id FROM card", byte[].class).stream()
+                .map(CardIds::fromBytes)
+                .toList());
+        restarted.destroy();
+    }
+
+    @Test
+    void flushInsideATransactionUsesItsConnection() throws Exception {
+        AtomicInteger connections = new AtomicInteger();
+        DataSource counting = new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                connections.incrementAndGet();
+                return super.getConnection();
+            }
+        };
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(counting);
+        CardWriteBehind writeBehind = new CardWriteBehind(new JdbcTemplate(counting), transactionManager,
+                tempDir.resolve("card-wal.log"), DataSize.ofMegabytes(1), Duration.ofHours(1), 100);
+        writeBehind.afterPropertiesSet();
+        writeBehind.write(List.of(card("c1", "100")));
+        connections.set(0);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            writeBehind.flushIfPending(id("c1"));
+            writeBehind.flush();
+            assertEquals(1, writeBehind.pendingCount(), "pending until the transaction commits");
+        });
+
+        assertEquals(1, connections.get());
+        assertEquals(0, writeBehind.pendingCount());
+        assertEquals(0, new BigDecimal("100").compareTo(balanceOf("c1")));
+        writeBehind.destroy();
+    }
+
+    @Test
+    void flushInsideARolledBackTransactionLeavesTheCardPending() throws Exception {
+        CardWriteBehind writeBehind = start(DataSize.ofMegabytes(1));
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        writeBehind.write(List.of(card("c1", "100")));
+
+        transaction.executeWithoutResult(status -> {
+            writeBehind.flushIfPending(id("c1"));
+            status.setRollbackOnly();
+        });
+        assertEquals(1, writeBehind.pendingCount());
+        assertEquals(0, rowCount());
+
+        writeBehind.flush();
+        assertEquals(0, writeBehind.pendingCount());
+        assertEquals(0, new BigDecimal("100").compareTo(balanceOf("c1")));
+        writeBehind.destroy();
+    }
+
+    @Test
+    void wipesFlushedCardsFromTheLog() throws Exception {
+        CardWriteBehind writeBehind = start(DataSize.ofKilobytes(4));
+        Path wal = tempDir.resolve("card-wal.log");
+        writeBehind.write(List.of(card("c1", "100")));
+        assertTrue(contains(Files.readAllBytes(wal), card("c1", "100").getCardNumber()));
+
+        writeBehind.flush();
+        assertFalse(contains(Files.readAllBytes(wal), card("c1", "100").getCardNumber()));
+        writeBehind.destroy();
+    }
+
+    @Test
+    void compactsTheLogWhenItFillsUp() throws Exception {
+        CardWriteBehind writeBehind = start(DataSize.ofKilobytes(2));
+        for (int i = 0; i < 500; i++) {
+            writeBehind.write(List.of(card("c1", String.valueOf(i))));
+        }
+        assertEquals(1, writeBehind.pendingCount());
+
+        CardWriteBehind restarted = start(DataSize.ofKilobytes(2));
+        assertEquals(0, new BigDecimal("499").compareTo(balanceOf("c1")));
+        restarted.destroy();
+    }
+
+    private CardWriteBehind start(DataSize walSize) throws Exception {
+        CardWriteBehind writeBehind = new CardWriteBehind(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                tempDir.resolve("card-wal.log"), walSize, Duration.ofHours(1), 100);
+        writeBehind.afterPropertiesSet();
+        return writeBehind;
+    }
+
+    private BigDecimal balanceOf(String name) {
+        return jdbcTemplate.queryForObject("SELECT available_balance FROM card WHERE card_id = ?", BigDecimal.class,
+                CardIds.toBytes(id(name)));
+    }
+
+    private static boolean contains(byte[] file, String text) {
+        return new String(file, StandardCharsets.ISO_8859_1).contains(text);
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM card", Integer.class);
+    }
+
+    private static String id(String name) {
+        return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static Card card(String name, String balance) {
+        return Card.builder()
+                .cardId(id(name))
+                .accountId("account-1")
+                .cardNumber("9704520000" + name)
+                .cardHolderName("NGUYEN VAN A")
+                .cvvNumber("123")
+                .cardType(CardType.values()[0])
+                .cardStatus(CardStatus.ACTIVE)
+                .issuanceAt(new Date())
+                .expiryDate(new Date())
+                .availableBalance(new BigDecimal(balance))
+                .creditLimit(new BigDecimal("100"))
+                .build();
+    }
+}
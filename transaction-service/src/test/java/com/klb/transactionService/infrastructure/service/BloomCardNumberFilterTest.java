@@ -0,0 +1,100 @@
+package com.klb.transactionService.infrastructure.service;
+
+import com.klb.transactionService.shared.utils.CardIds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomCardNumberFilterTest {
+
+    private static final int CARDS = 10_000;
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE card (card_id BINARY(16) PRIMARY KEY, card_number VARCHAR(32) NOT NULL UNIQUE)");
+    }
+
+    @Test
+    void buildsFromTheTableAndRulesOutUnissuedNumbers() throws Exception {
+        for (int i = 0; i < CARDS; i++) {
+            insert(CardIds.next(), number(i));
+        }
+
+        BloomCardNumberFilter filter = start();
+        for (int i = 0; i < CARDS; i++) {
+            assertTrue(filter.mightContain(number(i)));
+        }
+        int falsePositives = 0;
+        for (int i = CARDS; i < CARDS * 2; i++) {
+            if (filter.mightContain(number(i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < CARDS / 100, "false positives: " + falsePositives);
+
+        filter.add(number(CARDS * 3));
+        assertTrue(filter.mightContain(number(CARDS * 3)));
+        filter.destroy();
+    }
+
+    @Test
+    void restartReusesTheFileAndOnlyCatchesUpOnRecentCards() throws Exception {
+        insert(CardIds.next(), number(1));
+        BloomCardNumberFilter first = start();
+        first.destroy();
+
+        // an old id is outside the catch-up range, so it is only found by a full scan
+        insert(CardIds.lowerBound(0), number(2));
+        insert(CardIds.next(), number(3));
+        // a legacy random id sorts above every time-ordered one and is not re-read by the catch-up either
+        insert("ffffffff-ffff-4fff-bfff-ffffffffffff", number(5));
+
+        BloomCardNumberFilter restarted = start();
+        assertTrue(restarted.mightContain(number(1)), "kept in the file");
+        assertTrue(restarted.mightContain(number(3)), "caught up");
+        assertFalse(restarted.mightContain(number(2)), "no full scan on restart");
+        assertFalse(restarted.mightContain(number(5)), "legacy ids outside the catch-up range");
+
+        insert(CardIds.next(), number(4));
+        restarted.refresh();
+        assertTrue(restarted.mightContain(number(4)));
+        restarted.destroy();
+    }
+
+    private BloomCardNumberFilter start() throws Exception {
+        BloomCardNumberFilter filter = new BloomCardNumberFilter(jdbcTemplate, tempDir.resolve("bloom.bin"),
+                CARDS * 2L, 0.001, Duration.ofSeconds(10));
+        filter.afterPropertiesSet();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!filter.isReady()) {
+            assertTrue(System.nanoTime() < deadline, "filter did not load");
+            Thread.sleep(10);
+        }
+        return filter;
+    }
+
+    private void insert(String cardId, String cardNumber) {
+        jdbcTemplate.update("INSERT INTO card VALUES (?, ?)", CardIds.toBytes(cardId), cardNumber);
+    }
+
+    private static String number(int i) {
+        return String.format("970452%010d", i);
+    }
+}
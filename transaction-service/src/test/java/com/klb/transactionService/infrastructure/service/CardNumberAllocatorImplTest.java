@@ -0,0 +1,141 @@
+package com.klb.transactionService.infrastructure.service;
+
+import com.klb.transactionService.domain.repositories.CardRepository;
+import com.klb.transactionService.domain.services.CardNumberFilter;
+import com.klb.transactionService.infrastructure.persistence.entities.CardNumberSequence;
+import com.klb.transactionService.infrastructure.persistence.repositories.CardNumberSequenceRepositoryImpl;
+import com.klb.transactionService.shared.utils.Luhn;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CardNumberAllocatorImplTest {
+
+    @Test
+    void allocatesUniqueLuhnValidNumbersAcrossBlocks() throws InterruptedException {
+        CardNumberSequence sequence = CardNumberSequence.builder().bin("970452").nextValue(0).build();
+        CardNumberSequenceRepositoryImpl repository = mock(CardNumberSequenceRepositoryImpl.class);
+        when(repository.findForUpdate("970452")).thenReturn(Optional.of(sequence));
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        CardNumberAllocatorImpl allocator = new CardNumberAllocatorImpl(repository, mock(CardRepository.class),
+                filter(true), transactionManager, "970452", 100, 20, Duration.ofSeconds(5), true);
+
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            workers.submit(() -> {
+                List<String> numbers = allocator.next(1250);
+                issued.addAll(numbers);
+            });
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(30, TimeUnit.SECONDS));
+        allocator.destroy();
+
+        assertEquals(10_000, issued.size());
+        for (String number : issued) {
+            assertEquals(16, number.length());
+            assertTrue(number.startsWith("970452"));
+            assertTrue(Luhn.isValid(number), number);
+        }
+        assertTrue(sequence.getNextValue() >= 10_000);
+    }
+
+    @Test
+    void callersInsideATransactionNeverReserveBlocksThemselves() throws Exception {
+        CardNumberSequence sequence = CardNumberSequence.builder().bin("970452").nextValue(0).build();
+        CardNumberSequenceRepositoryImpl repository = mock(CardNumberSequenceRepositoryImpl.class);
+        when(repository.findForUpdate("970452")).thenReturn(Optional.of(sequence));
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Set<String> reservingThreads = ConcurrentHashMap.newKeySet();
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            reservingThreads.add(Thread.currentThread().getName());
+            return new SimpleTransactionStatus();
+        });
+
+        CardNumberAllocatorImpl allocator = new CardNumberAllocatorImpl(repository, mock(CardRepository.class),
+                filter(true), transactionManager, "970452", 100, 20, Duration.ofSeconds(5), true);
+        allocator.afterPropertiesSet();
+        assertEquals(Set.of(Thread.currentThread().getName()), reservingThreads, "first block at startup");
+        reservingThreads.clear();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals(350, Set.copyOf(allocator.next(350)).size());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            allocator.destroy();
+        }
+        assertEquals(Set.of("card-number-replenisher"), reservingThreads);
+    }
+
+    @Test
+    void skipsNumbersIssuedBeforeTheAllocator() {
+        CardNumberSequence sequence = CardNumberSequence.builder().bin("970452").nextValue(0).build();
+        CardNumberSequenceRepositoryImpl repository = mock(CardNumberSequenceRepositoryImpl.class);
+        when(repository.findForUpdate("970452")).thenReturn(Optional.of(sequence));
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // stands in for legacy random PANs: every number with check digit 0
+        CardRepository cardRepository = mock(CardRepository.class);
+        when(cardRepository.existsByCardNumber(any())).thenAnswer(invocation ->
+                invocation.<String>getArgument(0).endsWith("0"));
+
+        CardNumberAllocatorImpl allocator = new CardNumberAllocatorImpl(repository, cardRepository,
+                filter(true), transactionManager, "970452", 100, 20, Duration.ofSeconds(5), true);
+        List<String> numbers = allocator.next(500);
+        allocator.destroy();
+
+        assertEquals(500, Set.copyOf(numbers).size());
+        assertTrue(numbers.stream().noneMatch(number -> number.endsWith("0")));
+    }
+
+    @Test
+    void noCollisionQueryWhileTheFilterLoadsOrForABinWithoutLegacyNumbers() {
+        CardNumberSequence sequence = CardNumberSequence.builder().bin("970452").nextValue(0).build();
+        CardNumberSequenceRepositoryImpl repository = mock(CardNumberSequenceRepositoryImpl.class);
+        when(repository.findForUpdate("970452")).thenReturn(Optional.of(sequence));
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CardRepository cardRepository = mock(CardRepository.class);
+
+        CardNumberAllocatorImpl loading = new CardNumberAllocatorImpl(repository, cardRepository,
+                filter(false), transactionManager, "970452", 100, 20, Duration.ofSeconds(5), true);
+        CardNumberAllocatorImpl newBin = new CardNumberAllocatorImpl(repository, cardRepository,
+                filter(true), transactionManager, "970452", 100, 20, Duration.ofSeconds(5), false);
+        assertEquals(250, Set.copyOf(loading.next(250)).size());
+        assertEquals(250, Set.copyOf(newBin.next(250)).size());
+        loading.destroy();
+        newBin.destroy();
+
+        verify(cardRepository, never()).existsByCardNumber(any());
+    }
+
+    private static CardNumberFilter filter(boolean ready) {
+        CardNumberFilter filter = mock(CardNumberFilter.class);
+        when(filter.isReady()).thenReturn(ready);
+        when(filter.mightContain(any())).thenReturn(true);
+        return filter;
+    }
+}
@@ -0,0 +1,191 @@
+package com.klb.transactionService.infrastructure.service;
+
+import com.klb.transactionService.domain.entities.Card;
+import com.klb.transactionService.domain.enums.CardStatus;
+import com.klb.transactionService.domain.repositories.BalanceJournalRepository;
+import com.klb.transactionService.domain.repositories.CardRepository;
+import com.klb.transactionService.domain.services.BalanceLaneSnapshot;
+import com.klb.transactionService.shared.utils.MinorUnits;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ShardedBalanceLanesTest {
+
+    private static final int DEBITS = 20_000;
+    private static final long FUNDED_DEBITS = 12_000;
+
+    @Test
+    void coalescesDebitsOnOneCardWithoutOverdrawing() throws Exception {
+        AtomicLong balance = new AtomicLong(MinorUnits.of(BigDecimal.valueOf(FUNDED_DEBITS)));
+        CardRepository repository = mock(CardRepository.class);
+        when(repository.findById("hot")).thenAnswer(invocation -> Optional.of(Card.builder()
+                .cardId("hot")
+                .cardStatus(CardStatus.ACTIVE)
+                .availableBalance(MinorUnits.toDecimal(balance.get()))
+                .build()));
+        when(repository.compareAndSetBalance(eq("hot"), anyLong(), anyLong())).thenAnswer(invocation ->
+                balance.compareAndSet(invocation.getArgument(1), invocation.getArgument(2)));
+
+        BalanceJournalRepository journal = mock(BalanceJournalRepository.class);
+        AtomicLong journalLines = new AtomicLong();
+        doAnswer(invocation -> journalLines.addAndGet(invocation.<List<?>>getArgument(0).size()))
+                .when(journal).appendAll(anyList());
+
+        ShardedBalanceLanes lanes = new ShardedBalanceLanes(repository, journal, transactionManager(),
+                mock(ApplicationEventPublisher.class), 4, DEBITS, 256, 100, Duration.ofSeconds(30));
+        long oneUnit = MinorUnits.of(BigDecimal.ONE);
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(DEBITS);
+        for (int i = 0; i < DEBITS; i++) {
+            results.add(lanes.debit("hot", oneUnit));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+        lanes.destroy();
+
+        assertEquals(FUNDED_DEBITS, results.stream().filter(CompletableFuture::join).count());
+        assertEquals(0, balance.get());
+        assertEquals(FUNDED_DEBITS, journalLines.get());
+
+        BalanceLaneSnapshot lane = lanes.snapshot().stream()
+                .filter(snapshot -> snapshot.getOperations() > 0)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(DEBITS, lane.getOperations());
+        assertTrue(lane.getWrites() < DEBITS, "queued debits should be coalesced into fewer writes");
+        verify(repository, never()).debitIfSufficient(anyString(), anyLong());
+        // read once up front, then only to confirm declines; accepted debits are applied to the cached balance
+        verify(repository, atMost(DEBITS - (int) FUNDED_DEBITS + 1)).findById("hot");
+    }
+
+    @Test
+    void rereadsTheCardWhenTheCompareAndSetFails() throws Exception {
+        AtomicLong balance = new AtomicLong(MinorUnits.of(new BigDecimal("10")));
+        CardRepository repository = mock(CardRepository.class);
+        when(repository.findById("card")).thenAnswer(invocation -> Optional.of(Card.builder()
+                .cardId("card")
+                .cardStatus(CardStatus.ACTIVE)
+                .availableBalance(MinorUnits.toDecimal(balance.get()))
+                .build()));
+        when(repository.compareAndSetBalance(eq("card"), anyLong(), anyLong())).thenAnswer(invocation ->
+                balance.compareAndSet(invocation.getArgument(1), invocation.getArgument(2)));
+
+        ShardedBalanceLanes lanes = new ShardedBalanceLanes(repository, mock(BalanceJournalRepository.class),
+                transactionManager(), mock(ApplicationEventPublisher.class), 1, 16, 16, 100, Duration.ofSeconds(30));
+        long oneUnit = MinorUnits.of(BigDecimal.ONE);
+
+        assertTrue(lanes.debit("card", oneUnit).join());
+        // another instance credits the card behind the lane's back
+        balance.addAndGet(MinorUnits.of(new BigDecimal("5")));
+        assertTrue(lanes.debit("card", MinorUnits.of(new BigDecimal("14"))).join());
+        lanes.destroy();
+
+        assertEquals(0, balance.get());
+        verify(repository, times(2)).findById("card");
+    }
+
+    @Test
+    void blockedCardDeclinesDebitsAndAcceptsCredits() throws Exception {
+        CardRepository repository = mock(CardRepository.class);
+        when(repository.findById("blocked")).thenReturn(Optional.of(Card.builder()
+                .cardId("blocked")
+                .cardStatus(CardStatus.BLOCKED)
+                .availableBalance(new BigDecimal("100"))
+                .build()));
+        when(repository.credit(eq("blocked"), anyLong())).thenReturn(true);
+
+        ShardedBalanceLanes lanes = new ShardedBalanceLanes(repository, mock(BalanceJournalRepository.class),
+                transactionManager(), mock(ApplicationEventPublisher.class), 1, 16, 16, 100, Duration.ofSeconds(30));
+
+        assertFalse(lanes.debit("blocked", 1).join());
+        assertTrue(lanes.credit("blocked", 1).join());
+        lanes.destroy();
+        verify(repository, never()).compareAndSetBalance(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void completesWithFalseForUnknownCard() throws Exception {
+        CardRepository repository = mock(CardRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+
+        ShardedBalanceLanes lanes = new ShardedBalanceLanes(repository, mock(BalanceJournalRepository.class),
+                transactionManager(), mock(ApplicationEventPublisher.class), 2, 16, 16, 100, Duration.ofSeconds(30));
+
+        assertFalse(lanes.credit("missing", 100).join());
+        lanes.destroy();
+    }
+
+    @Test
+    void shutdownFailsOperationsTheLanesCouldNotFinish() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CardRepository repository = mock(CardRepository.class);
+        when(repository.findById("slow")).thenAnswer(invocation -> {
+            release.await();
+            return Optional.empty();
+        });
+
+        ShardedBalanceLanes lanes = new ShardedBalanceLanes(repository, mock(BalanceJournalRepository.class),
+                transactionManager(), mock(ApplicationEventPublisher.class), 1, 16, 1, 100, Duration.ofMillis(100));
+        CompletableFuture<Boolean> inFlight = lanes.credit("slow", 1);
+        verify(repository, timeout(5_000)).findById("slow");
+        CompletableFuture<Boolean> queued = lanes.credit("slow", 1);
+
+        lanes.destroy();
+        CompletionException rejected = assertThrows(CompletionException.class, queued::join);
+        assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+        assertInstanceOf(RejectedExecutionException.class,
+                assertThrows(CompletionException.class, () -> lanes.debit("slow", 1).join()).getCause());
+
+        release.countDown();
+        assertFalse(inFlight.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void skipsOperationsWhoseCallerGaveUp() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CardRepository repository = mock(CardRepository.class);
+        when(repository.findById("slow")).thenAnswer(invocation -> {
+            release.await();
+            return Optional.empty();
+        });
+
+        ShardedBalanceLanes lanes = new ShardedBalanceLanes(repository, mock(BalanceJournalRepository.class),
+                transactionManager(), mock(ApplicationEventPublisher.class), 1, 16, 1, 100, Duration.ofSeconds(5));
+        CompletableFuture<Boolean> inFlight = lanes.credit("slow", 1);
+        verify(repository, timeout(5_000)).findById("slow");
+        CompletableFuture<Boolean> abandoned = lanes.debit("other", 1).orTimeout(10, TimeUnit.MILLISECONDS);
+        assertThrows(CompletionException.class, abandoned::join);
+
+        release.countDown();
+        assertFalse(inFlight.get(5, TimeUnit.SECONDS));
+        lanes.destroy();
+        verify(repository, never()).findById("other");
+    }
+
+    private static PlatformTransactionManager transactionManager() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return transactionManager;
+    }
+}
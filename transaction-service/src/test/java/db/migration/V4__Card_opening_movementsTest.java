@@ -0,0 +1,91 @@
+package db.migration;
+
+import com.klb.transactionService.domain.entities.BalanceMovement;
+import com.klb.transactionService.domain.enums.MovementType;
+import com.klb.transactionService.infrastructure.persistence.adapters.BalanceJournalRepositoryAdapter;
+import com.klb.transactionService.shared.utils.CardIds;
+import com.klb.transactionService.shared.utils.MinorUnits;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class V4__Card_opening_movementsTest {
+
+    @Test
+    void journalsTheOpeningBalanceOfCardsCreatedBeforeTheJournal() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").target("3").load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        BalanceJournalRepositoryAdapter journal = new BalanceJournalRepositoryAdapter(jdbcTemplate);
+
+        String legacy = insertCard(jdbcTemplate, "5000000000000001", "80");
+        String debitedSince = insertCard(jdbcTemplate, "5000000000000002", "70");
+        String journaled = insertCard(jdbcTemplate, "5000000000000003", "100");
+        // debitedSince was at 100 when the journal started and has been debited 30 since
+        journal.appendAll(List.of(
+                movement(debitedSince, MovementType.DEBIT, "-30"),
+                movement(journaled, MovementType.OPENING, "100")));
+
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        assertEquals(MinorUnits.of(new BigDecimal("80")), journal.rebuildBalance(legacy));
+        assertEquals(MinorUnits.of(new BigDecimal("70")), journal.rebuildBalance(debitedSince));
+        assertEquals(MinorUnits.of(new BigDecimal("100")), journal.rebuildBalance(journaled));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM card_balance_movement "
+                + "WHERE card_id = ? AND movement_type = 'OPENING'", Integer.class, journaled));
+    }
+
+    @Test
+    void migratesADatabaseBaselinedFromThePreFlywaySchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        // the schema ddl-auto left behind, without Flyway's history table
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql")).execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        String existing = insertCard(jdbcTemplate, "5000000000000001", "80");
+
+        // the service's spring.flyway settings
+        MigrateResult result = Flyway.configure().dataSource(dataSource).locations("classpath:db/migration")
+                .baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertEquals("1", result.initialSchemaVersion);
+        assertEquals(List.of("2", "3", "4"), result.migrations.stream().map(migration -> migration.version).toList());
+        for (String table : List.of("card_number_sequence", "card_balance_snapshot", "card_outbox")) {
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class), table);
+        }
+        assertEquals(MinorUnits.of(new BigDecimal("80")),
+                new BalanceJournalRepositoryAdapter(jdbcTemplate).rebuildBalance(existing));
+    }
+
+    private static String insertCard(JdbcTemplate jdbcTemplate, String cardNumber, String balance) {
+        String cardId = CardIds.next();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.update("INSERT INTO card (card_id, account_id, card_number, card_holder_name, cvv_number, "
+                        + "card_type, card_status, issuance_at, expiry_date, available_balance, credit_limit) "
+                        + "VALUES (?, 'account-1', ?, 'NGUYEN VAN A', '123', 'CREDIT', 'ACTIVE', ?, ?, ?, 100)",
+                CardIds.toBytes(cardId), cardNumber, now, now, new BigDecimal(balance));
+        return cardId;
+    }
+
+    private static BalanceMovement movement(String cardId, MovementType type, String amount) {
+        return BalanceMovement.builder()
+                .cardId(cardId)
+                .type(type)
+                .amountMinor(MinorUnits.of(new BigDecimal(amount)))
+                .createdAt(new Date())
+                .build();
+    }
+}